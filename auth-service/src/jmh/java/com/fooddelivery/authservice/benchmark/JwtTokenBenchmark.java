@@ -0,0 +1,194 @@
+package com.fooddelivery.authservice.benchmark;
+
+import com.fooddelivery.authservice.entity.Role;
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.metrics.AuthMetrics;
+import com.fooddelivery.authservice.security.AccessTokenRevocationStore;
+import com.fooddelivery.authservice.security.JwtFilter;
+import com.fooddelivery.authservice.security.JwtTokenCodec;
+import com.fooddelivery.authservice.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous JwtUtil (key and parser rebuilt on every call, three
+ * parses per request in the filter) with {@link JwtTokenCodec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenBenchmark {
+
+    private static final String SECRET = "mySuperSecretKeyForJwtFoodDelivery12345";
+    private static final long EXPIRATION = 3_600_000;
+
+    private User user;
+    private String token;
+
+    private LegacyJwtUtil legacyJwtUtil;
+    private JwtUtil jwtUtil;
+
+    private OncePerRequestFilter legacyFilter;
+    private JwtFilter jwtFilter;
+
+    private final FilterChain noopChain = (request, response) -> { };
+
+    @Setup
+    public void setup() {
+        user = User.builder()
+                .id(42L)
+                .name("Benchmark")
+                .email("bench@test.com")
+                .password("ignored")
+                .role(Role.CUSTOMER)
+                .build();
+
+        legacyJwtUtil = new LegacyJwtUtil();
+        jwtUtil = new JwtUtil(new JwtTokenCodec(SECRET, EXPIRATION), new AuthMetrics(new SimpleMeterRegistry()));
+
+        legacyFilter = new LegacyJwtFilter(legacyJwtUtil);
+        // repository is only used for persistence, never on the request path
+        jwtFilter = new JwtFilter(jwtUtil, new AccessTokenRevocationStore(null, new SimpleMeterRegistry()));
+
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateTokenLegacy() {
+        return legacyJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateTokenCodec() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsLegacy() {
+        return legacyJwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsCodec() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public void filterLegacy(Blackhole blackhole) throws Exception {
+        legacyFilter.doFilter(authorizedRequest(), new MockHttpServletResponse(), noopChain);
+        consumeAndClear(blackhole);
+    }
+
+    @Benchmark
+    public void filterCodec(Blackhole blackhole) throws Exception {
+        jwtFilter.doFilter(authorizedRequest(), new MockHttpServletResponse(), noopChain);
+        consumeAndClear(blackhole);
+    }
+
+    // clearing is part of the measured request, like at the end of every real
+    // one; a per-invocation @TearDown would distort timings this short
+    private static void consumeAndClear(Blackhole blackhole) {
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest authorizedRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    /** JwtUtil as it was before the codec: a new key and parser on every call. */
+    static class LegacyJwtUtil {
+
+        String generateToken(User user) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("userId", user.getId());
+            claims.put("email", user.getEmail());
+            claims.put("role", user.getRole().name());
+
+            return Jwts.builder()
+                    .setSubject(user.getEmail())
+                    .addClaims(claims)
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                    .signWith(signedKey(), SignatureAlgorithm.HS256)
+                    .compact();
+        }
+
+        Claims extractAllClaims(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(signedKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+
+        private Key signedKey() {
+            return Keys.hmacShaKeyFor(SECRET.getBytes());
+        }
+    }
+
+    /** JwtFilter as it was before the codec: validate, then parse twice more. */
+    static class LegacyJwtFilter extends OncePerRequestFilter {
+
+        private final LegacyJwtUtil jwtUtil;
+
+        LegacyJwtFilter(LegacyJwtUtil jwtUtil) {
+            this.jwtUtil = jwtUtil;
+        }
+
+        @Override
+        protected void doFilterInternal(
+                HttpServletRequest request,
+                HttpServletResponse response,
+                FilterChain filterChain
+        ) throws ServletException, IOException {
+            String token = request.getHeader("Authorization").substring(7);
+
+            jwtUtil.extractAllClaims(token);
+            String email = jwtUtil.extractAllClaims(token).getSubject();
+            String role = jwtUtil.extractAllClaims(token).get("role", String.class);
+
+            UsernamePasswordAuthenticationToken authenticationToken =
+                    new UsernamePasswordAuthenticationToken(
+                            email,
+                            null,
+                            List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                    );
+            authenticationToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.fooddelivery.authservice.benchmark;
+
+import com.fooddelivery.authservice.AuthServiceApplication;
+import com.fooddelivery.authservice.dto.requests.LoginRequest;
+import com.fooddelivery.authservice.dto.requests.RegistrationRequest;
+import com.fooddelivery.authservice.dto.response.AuthResponse;
+import com.fooddelivery.authservice.exception.InvalidCredentialsException;
+import com.fooddelivery.authservice.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AuthService#login} through the real Spring context (JPA, email filter,
+ * password encoder pool, refresh token rotation) with H2 standing in for MySQL.
+ * <p>
+ * Run with the production strength to see the end-to-end latency, and with a low
+ * one to see everything around BCrypt.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "bench@test.com";
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({"4", "10"})
+    private int strength;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+
+    private final LoginRequest validLogin = new LoginRequest(EMAIL, PASSWORD);
+    private final LoginRequest wrongPassword = new LoginRequest(EMAIL, "wrong-password");
+    private final LoginRequest unknownEmail = new LoginRequest("nobody@test.com", PASSWORD);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // command line arguments take precedence over application.yml
+        context = new SpringApplicationBuilder(AuthServiceApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:login-bench;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                // no actuator port, it would clash with a locally running auth-service
+                "--management.server.port=-1",
+                "--spring.security.internal.token=benchmark",
+                "--spring.security.password-hashing.strength=" + strength
+        );
+        authService = context.getBean(AuthService.class);
+
+        authService.registration(new RegistrationRequest(EMAIL, "Benchmark", "CUSTOMER", PASSWORD));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthResponse loginSuccess() {
+        return authService.login(validLogin);
+    }
+
+    @Benchmark
+    public void loginWrongPassword(Blackhole blackhole) {
+        try {
+            authService.login(wrongPassword);
+        } catch (InvalidCredentialsException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    // ruled out by the email filter, only the dummy hash is checked
+    @Benchmark
+    public void loginUnknownEmail(Blackhole blackhole) {
+        try {
+            authService.login(unknownEmail);
+        } catch (InvalidCredentialsException ex) {
+            blackhole.consume(ex);
+        }
+    }
+}
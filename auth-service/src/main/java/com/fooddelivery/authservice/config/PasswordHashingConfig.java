@@ -0,0 +1,49 @@
+package com.fooddelivery.authservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt is pure CPU work, so it gets its own pool sized to the core count
+ * instead of running on Tomcat request threads. The queue is bounded and
+ * overflow is rejected immediately rather than piling up.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${spring.security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${spring.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        // executor.queued / executor.active / executor.pool.size ...
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty())
+                .bindTo(meterRegistry);
+
+        return executor;
+    }
+}
@@ -1,20 +1,23 @@
 package com.fooddelivery.authservice.config;
 
+import com.fooddelivery.authservice.security.BoundedPasswordEncoder;
 import com.fooddelivery.authservice.security.JwtFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @RequiredArgsConstructor
@@ -28,6 +31,14 @@ public class SecurityBeansConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth.requestMatchers("/auth/**")
                         .permitAll()
+                        // scraped by Prometheus, only served on management.server.port
+                        .requestMatchers("/actuator/health", "/actuator/prometheus")
+                        .permitAll()
+                        // service-to-service, checked against spring.security.internal.token
+                        .requestMatchers("/internal/**")
+                        .permitAll()
+                        .requestMatchers("/admin/**")
+                        .hasRole("ADMIN")
                         .anyRequest()
                         .authenticated())
                 .addFilterBefore(
@@ -68,7 +79,18 @@ public class SecurityBeansConfig {
 
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            ThreadPoolExecutor passwordHashingExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${spring.security.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${spring.security.password-hashing.strength:10}") int strength
+    ) {
+        // stored hashes carry their own cost, changing the strength only affects new hashes
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(strength),
+                passwordHashingExecutor,
+                retryAfterSeconds,
+                meterRegistry
+        );
     }
 }
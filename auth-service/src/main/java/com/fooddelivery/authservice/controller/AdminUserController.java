@@ -0,0 +1,40 @@
+package com.fooddelivery.authservice.controller;
+
+import com.fooddelivery.authservice.dto.response.BulkRegistrationResponse;
+import com.fooddelivery.authservice.exception.ApiResponse;
+import com.fooddelivery.authservice.service.BulkRegistrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final BulkRegistrationService bulkRegistrationService;
+
+    // body is a JSON array of RegistrationRequest, read as a stream
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BulkRegistrationResponse>> bulkRegistration(
+            InputStream body) {
+
+        BulkRegistrationResponse result = bulkRegistrationService.registerAll(body);
+
+        ApiResponse<BulkRegistrationResponse> response = ApiResponse.<BulkRegistrationResponse>builder()
+                .status(HttpStatus.OK.value())
+                .message("Imported " + result.getCreated() + " of " + result.getTotal() + " users")
+                .data(result)
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,16 +1,23 @@
 package com.fooddelivery.authservice.controller;
 
 import com.fooddelivery.authservice.dto.requests.LoginRequest;
+import com.fooddelivery.authservice.dto.requests.RefreshTokenRequest;
 import com.fooddelivery.authservice.dto.requests.RegistrationRequest;
 import com.fooddelivery.authservice.dto.response.AuthResponse;
 import com.fooddelivery.authservice.exception.ApiResponse;
+import com.fooddelivery.authservice.exception.InvalidCredentialsException;
+import com.fooddelivery.authservice.metrics.AuthMetrics;
+import com.fooddelivery.authservice.security.LoginThrottle;
 import com.fooddelivery.authservice.service.AuthService;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,12 +29,21 @@ import java.time.LocalDateTime;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
+    private final AuthMetrics authMetrics;
 
     @PostMapping("/registration")
     public ResponseEntity<ApiResponse<?>> registration(
             @Valid @RequestBody RegistrationRequest request) {
 
-        authService.registration(request);
+        Timer.Sample sample = authMetrics.start();
+        try {
+            authService.registration(request);
+        } catch (RuntimeException ex) {
+            authMetrics.recordRegistration(sample, AuthMetrics.outcomeOf(ex));
+            throw ex;
+        }
+        authMetrics.recordRegistration(sample, "created");
 
         ApiResponse<?> response = ApiResponse.builder()
                 .status(HttpStatus.CREATED.value())
@@ -40,9 +56,28 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<AuthResponse>> login(
-            @Valid @RequestBody LoginRequest request) {
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
 
-        AuthResponse authResponse = authService.login(request);
+        Timer.Sample sample = authMetrics.start();
+        // the client behind the gateway, see server.forward-headers-strategy
+        String clientIp = httpRequest.getRemoteAddr();
+        AuthResponse authResponse;
+        try {
+            // rejected before the service touches the DB or the password encoder
+            loginThrottle.checkAllowed(clientIp, request.getEmail());
+
+            authResponse = authService.login(request);
+        } catch (InvalidCredentialsException ex) {
+            loginThrottle.recordFailure(clientIp, request.getEmail());
+            authMetrics.recordLogin(sample, AuthMetrics.outcomeOf(ex));
+            throw ex;
+        } catch (RuntimeException ex) {
+            authMetrics.recordLogin(sample, AuthMetrics.outcomeOf(ex));
+            throw ex;
+        }
+        loginThrottle.recordSuccess(clientIp, request.getEmail());
+        authMetrics.recordLogin(sample, "success");
 
         ApiResponse<AuthResponse> response = ApiResponse.<AuthResponse>builder()
                 .status(HttpStatus.OK.value())
@@ -54,4 +89,39 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(
+            @RequestBody RefreshTokenRequest request) {
+
+        AuthResponse authResponse = authService.refresh(request);
+
+        ApiResponse<AuthResponse> response = ApiResponse.<AuthResponse>builder()
+                .status(HttpStatus.OK.value())
+                .message("Token refreshed")
+                .data(authResponse)
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<?>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ")
+                ? authHeader.substring(7)
+                : null;
+        authService.logout(accessToken, request);
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Logged out")
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
 }
@@ -0,0 +1,101 @@
+package com.fooddelivery.authservice.controller;
+
+import com.fooddelivery.authservice.dto.response.RevocationDeltaResponse;
+import com.fooddelivery.authservice.dto.response.RevokedTokenEntry;
+import com.fooddelivery.authservice.entity.RevokedAccessToken;
+import com.fooddelivery.authservice.exception.InvalidCredentialsException;
+import com.fooddelivery.authservice.repository.RevokedAccessTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Delta feed of revoked access tokens for other services to replicate locally.
+ * Callers poll with the cursor of the previous page; only tokens that have not
+ * expired yet are returned.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so a flush from
+ * another node can still commit below rows already served. While a recently
+ * revoked token sits above a missing id, the cursor stays below the gap and the
+ * rows after it are served again, until the gap fills or {@code gap-timeout}
+ * passes (rolled back inserts and pruned tokens never fill it).
+ */
+@RestController
+@RequestMapping("/internal/revocations")
+public class InternalRevocationController {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final byte[] internalToken;
+    private final Duration gapTimeout;
+
+    public InternalRevocationController(
+            RevokedAccessTokenRepository revokedAccessTokenRepository,
+            @Value("${spring.security.internal.token}") String internalToken,
+            @Value("${spring.security.jwt.revocation.gap-timeout:30s}") Duration gapTimeout
+    ) {
+        if (internalToken.isBlank()) {
+            throw new IllegalArgumentException("spring.security.internal.token must not be blank");
+        }
+
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.internalToken = internalToken.getBytes(StandardCharsets.UTF_8);
+        this.gapTimeout = gapTimeout;
+    }
+
+    @GetMapping
+    public ResponseEntity<RevocationDeltaResponse> revocationsSince(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        if (token == null || !MessageDigest.isEqual(internalToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new InvalidCredentialsException("Invalid internal token");
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // expired rows are read too, so only missing ids count as gaps
+        List<RevokedAccessToken> page = revokedAccessTokenRepository
+                .findByIdGreaterThanOrderByIdAsc(since, PageRequest.of(0, pageSize));
+
+        long cursor = safeCursor(since, page);
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedTokenEntry> entries = page.stream()
+                .filter(revoked -> revoked.getExpiresAt().isAfter(now))
+                .map(revoked -> RevokedTokenEntry.builder()
+                        .jti(revoked.getJti())
+                        .expiresAt(revoked.getExpiresAt()
+                                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                        .build())
+                .toList();
+
+        return ResponseEntity.ok(RevocationDeltaResponse.builder()
+                .cursor(cursor)
+                // a held cursor would only serve the same page again
+                .hasMore(page.size() == pageSize && cursor == page.get(page.size() - 1).getId())
+                .entries(entries)
+                .build());
+    }
+
+    // the id before the first recent gap, or the last id of the page
+    private long safeCursor(long since, List<RevokedAccessToken> page) {
+        LocalDateTime gapsExpireBefore = LocalDateTime.now().minus(gapTimeout);
+        long previous = since;
+        for (RevokedAccessToken revoked : page) {
+            if (revoked.getId() > previous + 1 && revoked.getRevokedAt().isAfter(gapsExpireBefore)) {
+                return previous;
+            }
+            previous = revoked.getId();
+        }
+        return previous;
+    }
+}
@@ -12,5 +12,6 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     private Long id;
     private String token;
+    private String refreshToken;
     private String role;
 }
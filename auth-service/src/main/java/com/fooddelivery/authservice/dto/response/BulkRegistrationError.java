@@ -0,0 +1,16 @@
+package com.fooddelivery.authservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkRegistrationError {
+    private int row;
+    private String email;
+    private String message;
+}
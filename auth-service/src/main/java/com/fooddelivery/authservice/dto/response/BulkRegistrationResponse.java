@@ -0,0 +1,19 @@
+package com.fooddelivery.authservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkRegistrationResponse {
+    private int total;
+    private int created;
+    private int failed;
+    private List<BulkRegistrationError> errors;
+}
@@ -0,0 +1,35 @@
+package com.fooddelivery.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(
+        name = "revoked_access_tokens",
+        indexes = @Index(name = "idx_revoked_access_tokens_expires_at", columnList = "expiresAt")
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RevokedAccessToken {
+
+    // monotonic, used as the cursor of the revocation delta feed
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,68 @@
+package com.fooddelivery.authservice.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills an empty H2 database with synthetic users for the load harness.
+ * <p>
+ * Rows are generated inside the database with {@code SYSTEM_RANGE}, so millions of
+ * users take seconds. All of them share one password hash. Runners complete before
+ * {@code ApplicationReadyEvent}, so the registered email filter sees every seeded user.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private static final long CHUNK_SIZE = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final long users;
+    private final String password;
+
+    public LoadTestDataSeeder(
+            JdbcTemplate jdbcTemplate,
+            PasswordEncoder passwordEncoder,
+            @Value("${loadtest.seed.users}") long users,
+            @Value("${loadtest.seed.password}") String password
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Load test database already has {} users, skipping seed", existing);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        String passwordHash = passwordEncoder.encode(password);
+
+        for (long from = 1; from <= users; from += CHUNK_SIZE) {
+            long to = Math.min(from + CHUNK_SIZE - 1, users);
+            jdbcTemplate.update("""
+                    INSERT INTO user (name, email, password, role, created_at)
+                    SELECT CONCAT('Load User ', X), CONCAT('user', X, '@load.test'), ?,
+                           CASE WHEN MOD(X, 10) = 0 THEN 'RESTAURANT' ELSE 'CUSTOMER' END,
+                           CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(?, ?)
+                    ORDER BY X
+                    """, passwordHash, from, to);
+        }
+
+        log.info("Seeded {} users in {} ms", users, System.currentTimeMillis() - start);
+    }
+}
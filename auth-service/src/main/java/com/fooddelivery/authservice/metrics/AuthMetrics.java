@@ -0,0 +1,171 @@
+package com.fooddelivery.authservice.metrics;
+
+import com.fooddelivery.authservice.exception.InvalidCredentialsException;
+import com.fooddelivery.authservice.exception.InvalidRoleException;
+import com.fooddelivery.authservice.exception.JwtException;
+import com.fooddelivery.authservice.exception.ServiceOverloadedException;
+import com.fooddelivery.authservice.exception.TooManyRequestsException;
+import com.fooddelivery.authservice.exception.UserAlreadyExistsException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the login, registration and token paths. Every timer publishes a
+ * percentile histogram so p99 can be aggregated across instances.
+ * <ul>
+ *   <li>{@code auth.login{outcome}} and {@code auth.registration{outcome}}: whole request</li>
+ *   <li>{@code auth.login.phase{phase}}: user lookup, password check, token signing, refresh token</li>
+ *   <li>{@code auth.token.sign}, {@code auth.token.parse} and
+ *       {@code auth.token.parse.failures{cause}}</li>
+ * </ul>
+ * Outcomes and causes are fixed sets, unknown ones are reported as {@code error}/{@code invalid}.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum LoginPhase {
+        LOOKUP("lookup"),
+        PASSWORD("password"),
+        SIGN("sign"),
+        REFRESH_TOKEN("refresh_token");
+
+        private final String tag;
+
+        LoginPhase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final List<String> LOGIN_OUTCOMES =
+            List.of("success", "invalid_credentials", "throttled", "overloaded", "error");
+    private static final List<String> REGISTRATION_OUTCOMES =
+            List.of("created", "duplicate", "invalid_role", "overloaded", "error");
+    private static final List<String> PARSE_FAILURE_CAUSES =
+            List.of("expired", "signature", "malformed", "unsupported", "empty", "invalid");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<LoginPhase, Timer> loginPhases = new EnumMap<>(LoginPhase.class);
+    private final Map<String, Timer> loginOutcomes = new HashMap<>();
+    private final Map<String, Timer> registrationOutcomes = new HashMap<>();
+    private final Map<String, Counter> parseFailures = new HashMap<>();
+    private final Timer tokenSign;
+    private final Timer tokenParse;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (LoginPhase phase : LoginPhase.values()) {
+            loginPhases.put(phase, timer("auth.login.phase", "Login time by phase", "phase", phase.tag));
+        }
+        LOGIN_OUTCOMES.forEach(outcome -> loginOutcomes.put(outcome,
+                timer("auth.login", "Login requests", "outcome", outcome)));
+        REGISTRATION_OUTCOMES.forEach(outcome -> registrationOutcomes.put(outcome,
+                timer("auth.registration", "Registration requests", "outcome", outcome)));
+        PARSE_FAILURE_CAUSES.forEach(cause -> parseFailures.put(cause,
+                Counter.builder("auth.token.parse.failures")
+                        .description("Access tokens rejected while parsing")
+                        .tag("cause", cause)
+                        .register(meterRegistry)));
+
+        this.tokenSign = timer("auth.token.sign", "Access token signing", null, null);
+        this.tokenParse = timer("auth.token.parse", "Access token verification and parsing", null, null);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordLogin(Timer.Sample sample, String outcome) {
+        sample.stop(loginOutcomes.getOrDefault(outcome, loginOutcomes.get("error")));
+    }
+
+    public void recordRegistration(Timer.Sample sample, String outcome) {
+        sample.stop(registrationOutcomes.getOrDefault(outcome, registrationOutcomes.get("error")));
+    }
+
+    public <T> T recordLoginPhase(LoginPhase phase, Supplier<T> work) {
+        return loginPhases.get(phase).record(work);
+    }
+
+    public <T> T recordTokenSign(Supplier<T> work) {
+        return tokenSign.record(work);
+    }
+
+    /** Times a parse and counts a failure by cause before rethrowing it. */
+    public <T> T recordTokenParse(Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } catch (RuntimeException ex) {
+            parseFailures.get(parseFailureCause(ex)).increment();
+            throw ex;
+        } finally {
+            tokenParse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Outcome tag of a failed login or registration. */
+    public static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof InvalidCredentialsException) {
+            return "invalid_credentials";
+        }
+        if (ex instanceof TooManyRequestsException) {
+            return "throttled";
+        }
+        if (ex instanceof ServiceOverloadedException) {
+            return "overloaded";
+        }
+        if (ex instanceof UserAlreadyExistsException) {
+            return "duplicate";
+        }
+        if (ex instanceof InvalidRoleException) {
+            return "invalid_role";
+        }
+        return "error";
+    }
+
+    static String parseFailureCause(Throwable ex) {
+        // the codec wraps jjwt exceptions into our own JwtException
+        Throwable cause = ex instanceof JwtException && ex.getCause() != null ? ex.getCause() : ex;
+
+        if (cause instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (cause instanceof SignatureException || cause instanceof io.jsonwebtoken.security.SecurityException) {
+            return "signature";
+        }
+        if (cause instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        if (cause instanceof UnsupportedJwtException) {
+            return "unsupported";
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return "empty";
+        }
+        return "invalid";
+    }
+
+    private Timer timer(String name, String description, String tagKey, String tagValue) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram();
+        if (tagKey != null) {
+            builder.tag(tagKey, tagValue);
+        }
+        return builder.register(meterRegistry);
+    }
+}
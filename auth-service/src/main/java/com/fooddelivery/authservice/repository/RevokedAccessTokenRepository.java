@@ -0,0 +1,24 @@
+package com.fooddelivery.authservice.repository;
+
+import com.fooddelivery.authservice.entity.RevokedAccessToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, Long> {
+
+    List<RevokedAccessToken> findByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedAccessToken> findByIdGreaterThanOrderByIdAsc(Long cursor, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedAccessToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,40 @@
+package com.fooddelivery.authservice.repository;
+
+import com.fooddelivery.authservice.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts for bulk imports. Hibernate cannot batch inserts
+ * for IDENTITY ids, but the JDBC driver can (rewriteBatchedStatements on MySQL).
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+
+    private static final String INSERT_USER =
+            "INSERT INTO user (name, email, password, role, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insertAll(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPassword());
+            ps.setString(4, user.getRole().name());
+            ps.setTimestamp(5, Timestamp.valueOf(user.getCreatedAt()));
+        });
+    }
+
+    @Transactional
+    public void insert(User user) {
+        insertAll(List.of(user));
+    }
+}
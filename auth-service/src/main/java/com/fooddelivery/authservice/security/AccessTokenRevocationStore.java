@@ -0,0 +1,167 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.entity.RevokedAccessToken;
+import com.fooddelivery.authservice.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Revoked access tokens, keyed by {@code jti}. Lookups are a single hash map read.
+ * <p>
+ * Entries are also kept in a set ordered by expiry so cleanup only walks the
+ * expired head instead of scanning everything. A revoked token only needs to be
+ * remembered until its own {@code exp}, after that the signature check rejects it.
+ * New revocations are written to the database in batches by {@link #flush()}
+ * and reloaded at startup. A batch that fails to save is written again row by
+ * row: tokens already stored by another node are skipped, and the rows left
+ * after a failed write are queued again for the next flush.
+ */
+@Component
+@Slf4j
+public class AccessTokenRevocationStore {
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    private final Map<String, Long> expiryByJti = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> byExpiry = new ConcurrentSkipListSet<>();
+    private final Queue<RevokedAccessToken> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    public AccessTokenRevocationStore(
+            RevokedAccessTokenRepository revokedAccessTokenRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+
+        Gauge.builder("auth.revoked.tokens", expiryByJti, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (remember(jti, expiresAt.getTime())) {
+            pendingWrites.add(RevokedAccessToken.builder()
+                    .jti(jti)
+                    .expiresAt(toLocalDateTime(expiresAt.getTime()))
+                    .revokedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && expiryByJti.containsKey(jti);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<RevokedAccessToken> stored =
+                revokedAccessTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        stored.forEach(token -> remember(token.getJti(), toEpochMillis(token.getExpiresAt())));
+        log.info("Loaded {} revoked access tokens", stored.size());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.security.jwt.revocation.flush-interval-ms:10000}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedAccessToken> batch = new ArrayList<>();
+        for (RevokedAccessToken token; (token = pendingWrites.poll()) != null; ) {
+            // an expired revocation has nothing left to guard, it is not worth a write
+            if (token.getExpiresAt().isAfter(now)) {
+                batch.add(token);
+            }
+        }
+        RuntimeException failure = batch.isEmpty() ? null : save(batch);
+
+        // cleanup runs even when the writes failed, or a stuck row would let both grow unbounded
+        evictExpired();
+        revokedAccessTokenRepository.deleteExpired(now);
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // the failure that sent rows back to the queue, null when nothing was queued again
+    private RuntimeException save(List<RevokedAccessToken> batch) {
+        try {
+            revokedAccessTokenRepository.saveAll(batch);
+            return null;
+        } catch (RuntimeException ex) {
+            // saveAll rolled back as a whole, ids assigned by the failed inserts are void
+            batch.forEach(token -> token.setId(null));
+        }
+
+        // one row at a time, so a row that can never be written does not hold back the rest
+        for (int i = 0; i < batch.size(); i++) {
+            RevokedAccessToken token = batch.get(i);
+            try {
+                revokedAccessTokenRepository.save(token);
+            } catch (DataIntegrityViolationException ex) {
+                // the jti is already stored, the same token was logged out on another node
+                log.debug("Revoked access token {} is already stored", token.getJti());
+            } catch (RuntimeException ex) {
+                List<RevokedAccessToken> unsaved = batch.subList(i, batch.size());
+                unsaved.forEach(row -> row.setId(null));
+                pendingWrites.addAll(unsaved);
+                log.warn("Saving {} revoked access tokens failed, retrying on the next flush", unsaved.size());
+                return ex;
+            }
+        }
+        return null;
+    }
+
+    void evictExpired() {
+        Entry now = new Entry(System.currentTimeMillis(), "");
+        Iterator<Entry> expired = byExpiry.headSet(now).iterator();
+        while (expired.hasNext()) {
+            Entry entry = expired.next();
+            expired.remove();
+            expiryByJti.remove(entry.jti(), entry.expiresAtMillis());
+        }
+    }
+
+    private boolean remember(String jti, long expiresAtMillis) {
+        if (expiryByJti.putIfAbsent(jti, expiresAtMillis) != null) {
+            return false;
+        }
+        byExpiry.add(new Entry(expiresAtMillis, jti));
+        return true;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Entry(long expiresAtMillis, String jti) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = Long.compare(expiresAtMillis, other.expiresAtMillis);
+            return byTime != 0 ? byTime : jti.compareTo(other.jti);
+        }
+    }
+}
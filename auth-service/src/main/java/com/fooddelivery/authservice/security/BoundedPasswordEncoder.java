@@ -0,0 +1,160 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs the delegate encoder on a dedicated bounded executor. When the executor
+ * queue is full the call fails fast with {@link ServiceOverloadedException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate,
+            ExecutorService executor,
+            long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashing calls rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * Hashes many passwords in parallel for bulk jobs. At most {@code maxInFlight}
+     * tasks are queued at once so interactive logins keep room in the queue.
+     * When the queue is still full the job waits for one of its own hashes, and
+     * fails with {@link ServiceOverloadedException} once it has none left to
+     * wait for; it never hashes on the caller thread, outside the pool's bound.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords, int maxInFlight) {
+        Semaphore window = new Semaphore(Math.max(maxInFlight, 1));
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        int unfinished = 0;
+
+        for (CharSequence rawPassword : rawPasswords) {
+            window.acquireUninterruptibly();
+            while (true) {
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return encodeTimer.record(() -> delegate.encode(rawPassword));
+                        } finally {
+                            window.release();
+                        }
+                    }));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    while (unfinished < futures.size() && futures.get(unfinished).isDone()) {
+                        unfinished++;
+                    }
+                    if (unfinished == futures.size()) {
+                        window.release();
+                        rejectedCounter.increment();
+                        throw overloaded();
+                    }
+                    await(futures.get(unfinished));
+                }
+            }
+        }
+
+        List<String> encoded = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            encoded.add(await(future));
+        }
+        return encoded;
+    }
+
+    /**
+     * Threads of the hashing pool, to size bulk jobs against.
+     */
+    public int threads() {
+        return executor instanceof ThreadPoolExecutor pool
+                ? pool.getMaximumPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw overloaded();
+        }
+
+        return await(future);
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException(
+                "Too many authentication requests, please retry later",
+                retryAfterSeconds
+        );
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent inside the password encoder")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
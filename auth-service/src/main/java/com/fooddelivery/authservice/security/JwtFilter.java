@@ -20,6 +20,7 @@ import java.util.List;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final AccessTokenRevocationStore revocationStore;
 
     @Override
     protected void doFilterInternal(
@@ -36,15 +37,20 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        jwtUtil.validateToken(token);
-        String email = jwtUtil.extractEmail(token);
-        String role = jwtUtil.extractRole(token);
+        // one signature check per request, claims are read from the parsed result
+        TokenClaims claims = jwtUtil.parseToken(token);
 
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
+        // a revoked token stays anonymous, secured endpoints will answer 401/403
+        if (revocationStore.isRevoked(claims.tokenId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + claims.role());
 
         UsernamePasswordAuthenticationToken authenticationToken =
                 new UsernamePasswordAuthenticationToken(
-                        email,
+                        claims.email(),
                         null,
                         List.of(authority)
                 );
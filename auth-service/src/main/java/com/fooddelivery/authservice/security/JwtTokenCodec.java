@@ -0,0 +1,91 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.JwtException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs and parses access tokens. The HMAC key and the parser are derived
+ * once at startup, both are immutable and safe to share between request threads.
+ */
+@Component
+public class JwtTokenCodec {
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expirationMillis;
+
+    public JwtTokenCodec(
+            @Value("${spring.security.jwt.secret}") String secretKey,
+            @Value("${spring.security.jwt.expiration}") long expirationMillis
+    ) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expirationMillis = expirationMillis;
+    }
+
+    public String encode(User user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getEmail())
+                .addClaims(claimsOf(user))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Map<String, Object> claimsOf(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("email", user.getEmail());
+        claims.put("role", user.getRole().name());
+        return claims;
+    }
+
+    /**
+     * Verifies the token and returns its claims; the signature is checked exactly once.
+     */
+    public TokenClaims decode(String token) {
+        Claims claims = verify(token);
+        return new TokenClaims(
+                claims.getId(),
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+    }
+
+    public Claims verify(String token) {
+        try {
+            return parseClaims(token);
+        } catch (ExpiredJwtException e) {
+            throw new JwtException("Token expired", e);
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+            throw new JwtException("Invalid token", e);
+        }
+    }
+
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+}
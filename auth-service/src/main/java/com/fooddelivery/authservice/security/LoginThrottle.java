@@ -0,0 +1,196 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttles login attempts per client IP and per email before any database
+ * or BCrypt work is done.
+ * <p>
+ * Each key holds a token bucket stored as a single {@link AtomicLong} (GCRA:
+ * the "theoretical arrival time" of the next request), updated with CAS so
+ * there is no locking. Buckets live in size-bounded caches and are evicted once
+ * idle long enough to be full again, so dropping them loses no state and memory
+ * stays bounded however many keys an attacker rotates through.
+ * <p>
+ * Failed logins lock an email for the client IP they came from only, so bad
+ * passwords sent from elsewhere cannot lock the owner out of their account.
+ * Guessing from many IPs is still bounded by the email bucket.
+ */
+@Component
+public class LoginThrottle {
+
+    private final RateLimit ipLimit;
+    private final RateLimit emailLimit;
+    private final int maxFailures;
+    private final Duration failureWindow;
+
+    private final Cache<String, AtomicLong> ipBuckets;
+    private final Cache<String, AtomicLong> emailBuckets;
+    private final Cache<FailureKey, AtomicInteger> failures;
+
+    private final Counter rejectedByIp;
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByFailures;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${spring.security.login-throttle.ip-capacity:30}") int ipCapacity,
+            @Value("${spring.security.login-throttle.ip-refill-per-minute:30}") int ipRefillPerMinute,
+            @Value("${spring.security.login-throttle.email-capacity:10}") int emailCapacity,
+            @Value("${spring.security.login-throttle.email-refill-per-minute:5}") int emailRefillPerMinute,
+            @Value("${spring.security.login-throttle.max-failures:5}") int maxFailures,
+            @Value("${spring.security.login-throttle.failure-window-seconds:900}") long failureWindowSeconds,
+            @Value("${spring.security.login-throttle.max-keys:1000000}") long maxKeys
+    ) {
+        this.ipLimit = new RateLimit(ipCapacity, ipRefillPerMinute);
+        this.emailLimit = new RateLimit(emailCapacity, emailRefillPerMinute);
+        this.maxFailures = maxFailures;
+        this.failureWindow = Duration.ofSeconds(failureWindowSeconds);
+
+        this.ipBuckets = bucketCache(ipLimit, maxKeys);
+        this.emailBuckets = bucketCache(emailLimit, maxKeys);
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(failureWindow)
+                .build();
+
+        this.rejectedByIp = rejectedCounter(meterRegistry, "ip");
+        this.rejectedByEmail = rejectedCounter(meterRegistry, "email");
+        this.rejectedByFailures = rejectedCounter(meterRegistry, "failures");
+    }
+
+    /**
+     * Takes one token from the IP bucket and one from the email bucket,
+     * or throws {@link TooManyRequestsException} with the time to wait.
+     */
+    public void checkAllowed(String clientIp, String email) {
+        String emailKey = normalize(email);
+
+        if (emailKey != null) {
+            FailureKey failureKey = new FailureKey(emailKey, clientIp);
+            AtomicInteger failed = failures.getIfPresent(failureKey);
+            if (failed != null && failed.get() >= maxFailures) {
+                rejectedByFailures.increment();
+                throw new TooManyRequestsException(
+                        "Too many failed login attempts, please try again later",
+                        lockoutRemainingSeconds(failureKey)
+                );
+            }
+        }
+
+        if (clientIp != null) {
+            long waitNanos = ipLimit.tryAcquire(ipBuckets.get(clientIp, key -> new AtomicLong()));
+            if (waitNanos > 0) {
+                rejectedByIp.increment();
+                throw tooManyRequests(waitNanos);
+            }
+        }
+
+        if (emailKey != null) {
+            long waitNanos = emailLimit.tryAcquire(emailBuckets.get(emailKey, key -> new AtomicLong()));
+            if (waitNanos > 0) {
+                rejectedByEmail.increment();
+                throw tooManyRequests(waitNanos);
+            }
+        }
+    }
+
+    public void recordFailure(String clientIp, String email) {
+        String emailKey = normalize(email);
+        if (emailKey != null) {
+            failures.get(new FailureKey(emailKey, clientIp), key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    public void recordSuccess(String clientIp, String email) {
+        String emailKey = normalize(email);
+        if (emailKey != null) {
+            failures.invalidate(new FailureKey(emailKey, clientIp));
+        }
+    }
+
+    private long lockoutRemainingSeconds(FailureKey failureKey) {
+        return failures.policy().expireAfterWrite()
+                .flatMap(expiry -> expiry.ageOf(failureKey))
+                .map(age -> Math.max(1, failureWindow.minus(age).toSeconds()))
+                .orElse(failureWindow.toSeconds());
+    }
+
+    private static TooManyRequestsException tooManyRequests(long waitNanos) {
+        return new TooManyRequestsException(
+                "Too many login attempts, please try again later",
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)
+        );
+    }
+
+    private static Cache<String, AtomicLong> bucketCache(RateLimit limit, long maxKeys) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                // an idle bucket is full again after this long, evicting it loses nothing
+                .expireAfterAccess(Duration.ofNanos(limit.fullRefillNanos()))
+                .build();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.login.throttled")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record FailureKey(String email, String clientIp) {
+    }
+
+    /**
+     * Token bucket expressed as GCRA: one token every {@code emissionIntervalNanos},
+     * bursts of up to {@code capacity} requests.
+     */
+    static final class RateLimit {
+
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+
+        RateLimit(int capacity, int refillPerMinute) {
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(refillPerMinute, 1);
+            this.burstToleranceNanos = emissionIntervalNanos * (Math.max(capacity, 1) - 1);
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise how long to wait in nanoseconds
+         */
+        long tryAcquire(AtomicLong theoreticalArrival) {
+            while (true) {
+                long now = System.nanoTime();
+                long current = theoreticalArrival.get();
+                long tat = current == 0 ? now : Math.max(current, now);
+
+                long wait = tat - now - burstToleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, tat + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        long fullRefillNanos() {
+            return burstToleranceNanos + emissionIntervalNanos;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.fooddelivery.authservice.security;
+
+import java.util.Date;
+
+/**
+ * Immutable view of a verified access token, parsed once per request.
+ */
+public record TokenClaims(
+        String tokenId,
+        Long userId,
+        String email,
+        String role,
+        Date issuedAt,
+        Date expiresAt
+) {
+}
@@ -1,6 +1,7 @@
 package com.fooddelivery.authservice.service;
 
 import com.fooddelivery.authservice.dto.requests.LoginRequest;
+import com.fooddelivery.authservice.dto.requests.RefreshTokenRequest;
 import com.fooddelivery.authservice.dto.requests.RegistrationRequest;
 import com.fooddelivery.authservice.dto.response.AuthResponse;
 import com.fooddelivery.authservice.entity.Role;
@@ -8,12 +9,18 @@ import com.fooddelivery.authservice.entity.User;
 import com.fooddelivery.authservice.exception.InvalidCredentialsException;
 import com.fooddelivery.authservice.exception.InvalidRoleException;
 import com.fooddelivery.authservice.exception.UserAlreadyExistsException;
+import com.fooddelivery.authservice.metrics.AuthMetrics;
+import com.fooddelivery.authservice.metrics.AuthMetrics.LoginPhase;
 import com.fooddelivery.authservice.repository.UserRepository;
+import com.fooddelivery.authservice.security.AccessTokenRevocationStore;
 import com.fooddelivery.authservice.security.JwtUtil;
+import com.fooddelivery.authservice.security.TokenClaims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,15 +32,48 @@ public class AuthServiceImpl implements AuthService{
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocationStore revocationStore;
+    private final AuthMetrics authMetrics;
 
+    // hash checked against for unknown emails so they cost the same as a wrong password
+    private volatile String dummyPasswordHash;
+
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String SQL_STATE_UNIQUE_VIOLATION = "23505";
+
+    // Single round trip: insert directly and let the unique email constraint
+    // reject duplicates, this also closes the check-then-insert race.
+    // Only emails the filter can't rule out get an early SELECT to skip the BCrypt cost.
     @Override
     public void registration(RegistrationRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())){
+        validateRole(request.getRole());
+
+        if (registeredEmailFilter.mightContain(request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             throw new UserAlreadyExistsException("This email already have account");
         }
-        validateRole(request.getRole());
 
-        userRepository.save(convertUser(request));
+        try {
+            userRepository.save(convertUser(request));
+            registeredEmailFilter.add(request.getEmail());
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateKey(ex)) {
+                throw new UserAlreadyExistsException("This email already have account");
+            }
+            throw ex;
+        }
+    }
+
+    private boolean isDuplicateKey(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                        || SQL_STATE_UNIQUE_VIOLATION.equals(sqlException.getSQLState());
+            }
+        }
+        return false;
     }
 
     private User convertUser (RegistrationRequest request){
@@ -41,7 +81,7 @@ public class AuthServiceImpl implements AuthService{
                 .email(request.getEmail())
                 .name(request.getName())
                 .password(passwordEncoder.encode(request.getPassword()))
-                .role(Role.valueOf(request.getRole()))
+                .role(Role.valueOf(request.getRole().toUpperCase()))
                 .build();
 
     }
@@ -57,24 +97,71 @@ public class AuthServiceImpl implements AuthService{
 
     @Override
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() ->
-                        new InvalidCredentialsException("Wrong email or password"));
+        // emails the filter rules out never reach the database
+        User user = authMetrics.recordLoginPhase(LoginPhase.LOOKUP, () ->
+                registeredEmailFilter.mightContain(request.getEmail())
+                        ? userRepository.findByEmail(request.getEmail()).orElse(null)
+                        : null);
+
+        if (user == null) {
+            // same BCrypt cost as a wrong password, timing does not reveal which emails exist
+            authMetrics.recordLoginPhase(LoginPhase.PASSWORD, () ->
+                    passwordEncoder.matches(request.getPassword(), dummyPasswordHash()));
+            throw new InvalidCredentialsException("Wrong email or password");
+        }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // includes the wait for a hashing thread, auth.password.hash is the hash alone
+        boolean passwordMatches = authMetrics.recordLoginPhase(LoginPhase.PASSWORD, () ->
+                passwordEncoder.matches(request.getPassword(), user.getPassword()));
+        if (!passwordMatches) {
             throw new InvalidCredentialsException("Wrong email or password");
         }
 
-        String token = jwtUtil.generateToken(user);
+        String token = authMetrics.recordLoginPhase(LoginPhase.SIGN, () -> jwtUtil.generateToken(user));
+        String refreshToken = authMetrics.recordLoginPhase(LoginPhase.REFRESH_TOKEN, () ->
+                refreshTokenService.issue(user));
 
-        return convertResponse(user, token);
+        return convertResponse(user, token, refreshToken);
+    }
+
+    // No password check here: the refresh token is looked up by its SHA-256
+    @Override
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.RotatedRefreshToken rotated =
+                refreshTokenService.rotate(request.getRefreshToken());
+
+        User user = userRepository.findById(rotated.previous().getUserId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+
+        return convertResponse(user, jwtUtil.generateToken(user), rotated.rawToken());
+    }
+
+    @Override
+    public void logout(String accessToken, RefreshTokenRequest request) {
+        if (accessToken != null) {
+            TokenClaims claims = jwtUtil.parseToken(accessToken);
+            revocationStore.revoke(claims.tokenId(), claims.expiresAt());
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+    }
+
+    private String dummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("dummy-password-for-unknown-users");
+            dummyPasswordHash = hash;
+        }
+        return hash;
     }
 
-    private AuthResponse convertResponse (User user, String token){
+    private AuthResponse convertResponse (User user, String token, String refreshToken){
         return AuthResponse.builder()
                 .id(user.getId())
                 .role(String.valueOf(user.getRole()))
                 .token(token)
+                .refreshToken(refreshToken)
                 .build();
     }
 }
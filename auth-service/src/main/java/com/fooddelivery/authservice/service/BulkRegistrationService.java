@@ -0,0 +1,9 @@
+package com.fooddelivery.authservice.service;
+
+import com.fooddelivery.authservice.dto.response.BulkRegistrationResponse;
+
+import java.io.InputStream;
+
+public interface BulkRegistrationService {
+    BulkRegistrationResponse registerAll(InputStream jsonArray);
+}
@@ -0,0 +1,222 @@
+package com.fooddelivery.authservice.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.authservice.dto.requests.RegistrationRequest;
+import com.fooddelivery.authservice.dto.response.BulkRegistrationError;
+import com.fooddelivery.authservice.dto.response.BulkRegistrationResponse;
+import com.fooddelivery.authservice.entity.Role;
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.BadRequestException;
+import com.fooddelivery.authservice.repository.UserBatchRepository;
+import com.fooddelivery.authservice.repository.UserRepository;
+import com.fooddelivery.authservice.security.BoundedPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Streams a JSON array of registrations and imports it chunk by chunk:
+ * one set-based duplicate check, parallel hashing and one JDBC batch per chunk.
+ * Emails are compared the way MySQL does, without case. An upload is read up
+ * to {@code max-rows}, which bounds the emails remembered for the in-upload
+ * duplicate check and the reported errors.
+ */
+@Service
+@Slf4j
+public class BulkRegistrationServiceImpl implements BulkRegistrationService {
+
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final int chunkSize;
+    private final int hashParallelism;
+    private final int maxRows;
+
+    public BulkRegistrationServiceImpl(
+            ObjectMapper objectMapper,
+            UserRepository userRepository,
+            UserBatchRepository userBatchRepository,
+            BoundedPasswordEncoder passwordEncoder,
+            RegisteredEmailFilter registeredEmailFilter,
+            @Value("${spring.security.bulk-registration.chunk-size:500}") int chunkSize,
+            @Value("${spring.security.bulk-registration.hash-parallelism:0}") int hashParallelism,
+            @Value("${spring.security.bulk-registration.max-rows:100000}") int maxRows
+    ) {
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.chunkSize = chunkSize;
+        // half the hashing threads by default, the rest stay free for logins
+        this.hashParallelism = hashParallelism > 0
+                ? hashParallelism
+                : Math.max(1, passwordEncoder.threads() / 2);
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public BulkRegistrationResponse registerAll(InputStream jsonArray) {
+        List<BulkRegistrationError> errors = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int total = 0;
+        int created = 0;
+
+        try (MappingIterator<RegistrationRequest> rows =
+                     objectMapper.readerFor(RegistrationRequest.class).readValues(jsonArray)) {
+
+            while (rows.hasNextValue()) {
+                if (total == maxRows) {
+                    errors.add(BulkRegistrationError.builder()
+                            .row(total + 1)
+                            .message("Upload is limited to " + maxRows + " rows, the rest was not imported")
+                            .build());
+                    break;
+                }
+                RegistrationRequest request = rows.nextValue();
+                int rowNumber = ++total;
+
+                String error = validate(request);
+                if (error == null && !seenEmails.add(RegisteredEmailFilter.normalize(request.getEmail()))) {
+                    error = "Duplicate email in upload";
+                }
+                if (error != null) {
+                    errors.add(errorOf(rowNumber, request, error));
+                    continue;
+                }
+
+                chunk.add(new Row(rowNumber, request));
+                if (chunk.size() == chunkSize) {
+                    created += importChunk(chunk, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed bulk registration payload at row " + (total + 1));
+        }
+
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(BulkRegistrationError::getRow));
+        return BulkRegistrationResponse.builder()
+                .total(total)
+                .created(created)
+                .failed(errors.size())
+                .errors(errors)
+                .build();
+    }
+
+    private int importChunk(List<Row> chunk, List<BulkRegistrationError> errors) {
+        // only emails the filter can't rule out need the database check
+        List<String> candidates = chunk.stream()
+                .map(row -> row.request().getEmail())
+                .filter(registeredEmailFilter::mightContain)
+                .toList();
+        Set<String> existing = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            // the query matches case variants too, and returns them as stored
+            userRepository.findExistingEmails(candidates)
+                    .forEach(email -> existing.add(RegisteredEmailFilter.normalize(email)));
+        }
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(RegisteredEmailFilter.normalize(row.request().getEmail()))) {
+                errors.add(errorOf(row.number(), row.request(), "This email already have account"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(
+                accepted.stream().map(row -> row.request().getPassword()).toList(),
+                hashParallelism
+        );
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            users.add(convertUser(accepted.get(i).request(), hashes.get(i), now));
+        }
+
+        try {
+            userBatchRepository.insertAll(users);
+            users.forEach(user -> registeredEmailFilter.add(user.getEmail()));
+            return users.size();
+        } catch (DataIntegrityViolationException e) {
+            // someone registered one of these emails meanwhile, find out which row row by row
+            log.warn("Bulk insert of {} users hit a constraint, retrying row by row", users.size());
+            return insertOneByOne(accepted, users, errors);
+        }
+    }
+
+    private int insertOneByOne(List<Row> rows, List<User> users, List<BulkRegistrationError> errors) {
+        int created = 0;
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                userBatchRepository.insert(users.get(i));
+                registeredEmailFilter.add(users.get(i).getEmail());
+                created++;
+            } catch (DataIntegrityViolationException e) {
+                errors.add(errorOf(rows.get(i).number(), rows.get(i).request(), "This email already have account"));
+            }
+        }
+        return created;
+    }
+
+    private String validate(RegistrationRequest request) {
+        if (request == null) {
+            return "Empty row";
+        }
+        if (isBlank(request.getEmail()) || isBlank(request.getName())
+                || isBlank(request.getPassword()) || isBlank(request.getRole())) {
+            return "Email, name, role and password are required";
+        }
+        try {
+            Role.valueOf(request.getRole().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return "Invalid role";
+        }
+        return null;
+    }
+
+    private User convertUser(RegistrationRequest request, String passwordHash, LocalDateTime createdAt) {
+        return User.builder()
+                .email(request.getEmail())
+                .name(request.getName())
+                .password(passwordHash)
+                .role(Role.valueOf(request.getRole().toUpperCase()))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private BulkRegistrationError errorOf(int row, RegistrationRequest request, String message) {
+        return BulkRegistrationError.builder()
+                .row(row)
+                .email(request == null ? null : request.getEmail())
+                .message(message)
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Row(int number, RegistrationRequest request) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.fooddelivery.authservice.service;
+
+import com.fooddelivery.authservice.entity.RefreshToken;
+import com.fooddelivery.authservice.entity.User;
+
+public interface RefreshTokenService {
+    String issue(User user);
+    RotatedRefreshToken rotate(String rawToken);
+    void revoke(String rawToken);
+
+    record RotatedRefreshToken(RefreshToken previous, String rawToken) {
+    }
+}
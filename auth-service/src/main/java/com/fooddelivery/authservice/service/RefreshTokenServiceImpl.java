@@ -0,0 +1,119 @@
+package com.fooddelivery.authservice.service;
+
+import com.fooddelivery.authservice.entity.RefreshToken;
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.InvalidCredentialsException;
+import com.fooddelivery.authservice.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. Only a SHA-256 of each token is stored, so
+ * refreshing is a hash and an indexed lookup, never a BCrypt check. Presenting a
+ * token that was already rotated revokes its whole family (token theft signal).
+ */
+@Service
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String INVALID_REFRESH_TOKEN = "Invalid refresh token";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpirationMillis;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${spring.security.jwt.refresh-expiration:2592000000}") long refreshExpirationMillis
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpirationMillis = refreshExpirationMillis;
+    }
+
+    @Override
+    public String issue(User user) {
+        return issue(user.getId(), UUID.randomUUID().toString());
+    }
+
+    // marking the token used and issuing its successor commit together, or the
+    // client is left with a burned token whose retry looks like reuse; the
+    // rejection must not roll back a family revocation
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    @Override
+    public RotatedRefreshToken rotate(String rawToken) {
+        RefreshToken current = find(rawToken);
+
+        if (current.isRevoked() || refreshTokenRepository.markUsed(current.getId()) == 0) {
+            // a rotated token came back: someone else holds this family, kill it
+            log.warn("Refresh token reuse detected for user {}, revoking family", current.getUserId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidCredentialsException("Refresh token expired");
+        }
+
+        return new RotatedRefreshToken(current, issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    @Override
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(cron = "${spring.security.jwt.refresh-cleanup-cron:0 0 * * * *}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMillis)))
+                .revoked(false)
+                .build());
+
+        return rawToken;
+    }
+
+    private RefreshToken find(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+        return refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidCredentialsException(INVALID_REFRESH_TOKEN));
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
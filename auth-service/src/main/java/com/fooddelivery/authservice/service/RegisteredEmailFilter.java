@@ -0,0 +1,224 @@
+package com.fooddelivery.authservice.service;
+
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.repository.UserRepository;
+import com.fooddelivery.authservice.security.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of registered emails, used to skip database lookups
+ * for emails that are definitely not registered. Built at startup from a
+ * streaming scan of the user table and updated on every registration.
+ * Until the initial scan completes every email is reported as "maybe present".
+ * <p>
+ * Registrations on other nodes reach the filter through a poll that tails the
+ * user table by id, so an email registered elsewhere is rejected here for at
+ * most one {@code sync-interval-ms}. Ids become visible at commit, so ids
+ * skipped by the cursor are re-checked until they appear or
+ * {@code gap-timeout} passes. The filter is rebuilt every
+ * {@code rebuild-interval-ms} to drop deleted users and resize it for growth.
+ */
+@Component
+@Slf4j
+public class RegisteredEmailFilter {
+
+    // bounds one poll after a burst of registrations or a long pause
+    private static final int MAX_PAGES_PER_SYNC = 50;
+    private static final int MAX_PENDING_GAPS = 10_000;
+
+    private final UserRepository userRepository;
+    private final double falsePositiveRate;
+    private final long minExpectedInsertions;
+    private final int pageSize;
+    private final long gapTimeoutMillis;
+
+    // skipped user id -> when it was first seen missing
+    private final Map<Long, Long> pendingGaps = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+    // filter being filled by a rebuild, registrations go into both
+    private volatile BloomFilter building;
+    private volatile boolean ready;
+    private volatile long cursor;
+
+    private final Counter definitelyAbsent;
+    private final Counter mightBePresent;
+
+    public RegisteredEmailFilter(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${spring.security.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${spring.security.email-filter.min-expected-insertions:100000}") long minExpectedInsertions,
+            @Value("${spring.security.email-filter.sync-page-size:500}") int pageSize,
+            @Value("${spring.security.email-filter.gap-timeout:30s}") Duration gapTimeout
+    ) {
+        this.userRepository = userRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.pageSize = pageSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.filter = BloomFilter.create(minExpectedInsertions, falsePositiveRate);
+
+        this.definitelyAbsent = lookupCounter(meterRegistry, "absent");
+        this.mightBePresent = lookupCounter(meterRegistry, "maybe");
+
+        Gauge.builder("auth.email.filter.false.positive.rate", this, f -> f.filter.expectedFalsePositiveRate())
+                .description("Estimated false positive rate of the registered email filter")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.filter.memory", this, f -> f.filter.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.filter.insertions", this, f -> f.filter.insertions())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${spring.security.email-filter.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${spring.security.email-filter.rebuild-interval-ms:21600000}")
+    @Transactional(readOnly = true)
+    public synchronized void build() {
+        long maxId = userRepository.findMaxId();
+        long users = userRepository.count();
+        // leave room for growth so the false positive rate holds until the next rebuild
+        BloomFilter fresh = BloomFilter.create(Math.max(users * 2, minExpectedInsertions), falsePositiveRate);
+        // registrations during the scan land in the new filter as well
+        building = fresh;
+        if (!ready) {
+            filter = fresh;
+        }
+
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(email -> fresh.put(normalize(email)));
+        }
+        filter = fresh;
+        building = null;
+        // the next sync re-reads the newest page, so ids still uncommitted
+        // during the scan are tracked as gaps
+        pendingGaps.clear();
+        cursor = Math.max(maxId - pageSize, 0);
+        ready = true;
+
+        log.info("Registered email filter built: {} emails, {} KiB, {} hash functions",
+                fresh.insertions(), fresh.memoryBytes() / 1024, fresh.numHashes());
+    }
+
+    /**
+     * Adds the emails of users registered since the last poll, on any node.
+     */
+    @Scheduled(fixedDelayString = "${spring.security.email-filter.sync-interval-ms:1000}")
+    public synchronized void sync() {
+        if (!ready) {
+            return;
+        }
+
+        try {
+            recheckGaps();
+
+            for (int page = 0; page < MAX_PAGES_PER_SYNC; page++) {
+                List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, pageSize));
+                for (User user : users) {
+                    rememberGaps(cursor, user.getId());
+                    putIfAbsent(user.getEmail());
+                    cursor = user.getId();
+                }
+                if (users.size() < pageSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Registered email filter sync failed at user id {}: {}", cursor, ex.getMessage());
+        }
+    }
+
+    /**
+     * @return false only if the email is certainly not registered
+     */
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+        boolean present = filter.mightContain(normalize(email));
+        (present ? mightBePresent : definitelyAbsent).increment();
+        return present;
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            String normalized = normalize(email);
+            filter.put(normalized);
+            BloomFilter next = building;
+            if (next != null && next != filter) {
+                next.put(normalized);
+            }
+        }
+    }
+
+    public double expectedFalsePositiveRate() {
+        return filter.expectedFalsePositiveRate();
+    }
+
+    public long memoryBytes() {
+        return filter.memoryBytes();
+    }
+
+    long cursor() {
+        return cursor;
+    }
+
+    private void recheckGaps() {
+        if (pendingGaps.isEmpty()) {
+            return;
+        }
+
+        long expiredBefore = System.currentTimeMillis() - gapTimeoutMillis;
+        pendingGaps.values().removeIf(firstSeen -> firstSeen < expiredBefore);
+
+        for (User user : userRepository.findByIdIn(pendingGaps.keySet())) {
+            pendingGaps.remove(user.getId());
+            putIfAbsent(user.getEmail());
+        }
+    }
+
+    private void rememberGaps(long previous, long next) {
+        long now = System.currentTimeMillis();
+        for (long id = previous + 1; id < next && pendingGaps.size() < MAX_PENDING_GAPS; id++) {
+            pendingGaps.put(id, now);
+        }
+    }
+
+    // emails registered on this node are already in, keep the insertion count honest
+    private void putIfAbsent(String email) {
+        if (email != null && !filter.mightContain(normalize(email))) {
+            add(email);
+        }
+    }
+
+    // MySQL compares emails case-insensitively, so the filter must too
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.email.filter.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
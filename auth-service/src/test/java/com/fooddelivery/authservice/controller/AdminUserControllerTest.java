@@ -0,0 +1,96 @@
+package com.fooddelivery.authservice.controller;
+
+import com.fooddelivery.authservice.config.SecurityBeansConfig;
+import com.fooddelivery.authservice.dto.response.BulkRegistrationResponse;
+import com.fooddelivery.authservice.security.AccessTokenRevocationStore;
+import com.fooddelivery.authservice.security.JwtUtil;
+import com.fooddelivery.authservice.service.BulkRegistrationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bulk import is reachable for ADMIN tokens only, through the real filter chain.
+ */
+@WebMvcTest(AdminUserController.class)
+@Import({SecurityBeansConfig.class, AdminUserControllerTest.Beans.class})
+class AdminUserControllerTest {
+
+    private static final String BODY =
+            "[{\"email\":\"a@test.com\",\"name\":\"A\",\"role\":\"CUSTOMER\",\"password\":\"secret\"}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkRegistrationService bulkRegistrationService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private AccessTokenRevocationStore revocationStore;
+
+    // @EnableJpaAuditing on the application class needs it even without JPA
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @MockBean(name = "passwordHashingExecutor")
+    private ThreadPoolExecutor passwordHashingExecutor;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldImportForAdmin() throws Exception {
+        when(bulkRegistrationService.registerAll(any())).thenReturn(BulkRegistrationResponse.builder()
+                .total(1).created(1).failed(0).errors(List.of()).build());
+
+        mockMvc.perform(post("/admin/users/bulk").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void shouldRejectOtherRoles() throws Exception {
+        mockMvc.perform(post("/admin/users/bulk").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bulkRegistrationService);
+    }
+
+    @Test
+    void shouldRejectAnonymousCallers() throws Exception {
+        mockMvc.perform(post("/admin/users/bulk").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bulkRegistrationService);
+    }
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.fooddelivery.authservice.controller;
+
+import com.fooddelivery.authservice.dto.response.RevocationDeltaResponse;
+import com.fooddelivery.authservice.dto.response.RevokedTokenEntry;
+import com.fooddelivery.authservice.entity.RevokedAccessToken;
+import com.fooddelivery.authservice.repository.RevokedAccessTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InternalRevocationControllerTest {
+
+    private static final String TOKEN = "internal";
+
+    @Mock
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    private InternalRevocationController controller;
+
+    @BeforeEach
+    void setup() {
+        controller = new InternalRevocationController(revokedAccessTokenRepository, TOKEN, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldRefuseToStartWithoutInternalToken() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new InternalRevocationController(revokedAccessTokenRepository, " ", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void shouldHoldCursorBelowRecentGap() {
+        // id 3 was inserted by a flush that has not committed yet
+        LocalDateTime now = LocalDateTime.now();
+        when(revokedAccessTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(token(1, "a", now), token(2, "b", now), token(4, "d", now)));
+
+        RevocationDeltaResponse delta = controller.revocationsSince(TOKEN, 0, 3).getBody();
+
+        assertEquals(2, delta.getCursor());
+        assertFalse(delta.isHasMore());
+        // rows above the gap are served now and again once it fills
+        assertEquals(List.of("a", "b", "d"), delta.getEntries().stream().map(RevokedTokenEntry::getJti).toList());
+    }
+
+    @Test
+    void shouldPassGapsOlderThanTimeout() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(revokedAccessTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(token(8, "h", old), token(9, "i", old)));
+
+        RevocationDeltaResponse delta = controller.revocationsSince(TOKEN, 5, 2).getBody();
+
+        assertEquals(9, delta.getCursor());
+        assertTrue(delta.isHasMore());
+    }
+
+    @Test
+    void shouldSkipExpiredTokensWithoutTreatingThemAsGaps() {
+        LocalDateTime now = LocalDateTime.now();
+        RevokedAccessToken expired = token(2, "b", now);
+        expired.setExpiresAt(now.minusSeconds(1));
+        when(revokedAccessTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(token(1, "a", now), expired, token(3, "c", now)));
+
+        RevocationDeltaResponse delta = controller.revocationsSince(TOKEN, 0, 10).getBody();
+
+        assertEquals(3, delta.getCursor());
+        assertEquals(List.of("a", "c"), delta.getEntries().stream().map(RevokedTokenEntry::getJti).toList());
+    }
+
+    private static RevokedAccessToken token(long id, String jti, LocalDateTime revokedAt) {
+        return RevokedAccessToken.builder()
+                .id(id)
+                .jti(jti)
+                .revokedAt(revokedAt)
+                .expiresAt(revokedAt.plusMinutes(15))
+                .build();
+    }
+}
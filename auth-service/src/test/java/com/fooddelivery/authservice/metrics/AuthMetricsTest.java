@@ -0,0 +1,66 @@
+package com.fooddelivery.authservice.metrics;
+
+import com.fooddelivery.authservice.entity.Role;
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.JwtException;
+import com.fooddelivery.authservice.security.JwtTokenCodec;
+import com.fooddelivery.authservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthMetricsTest {
+
+    private static final String SECRET = "mySuperSecretKeyForJwtFoodDelivery12345";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(new JwtTokenCodec(SECRET, 60_000), new AuthMetrics(meterRegistry));
+    }
+
+    @Test
+    void parseToken_countsFailuresByCause() {
+        String expired = new JwtUtil(new JwtTokenCodec(SECRET, -1_000), new AuthMetrics(new SimpleMeterRegistry()))
+                .generateToken(user());
+        String otherKey = new JwtUtil(
+                new JwtTokenCodec("anotherSecretKeyForJwtFoodDelivery12345", 60_000),
+                new AuthMetrics(new SimpleMeterRegistry())
+        ).generateToken(user());
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(expired));
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(otherKey));
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken("not-a-jwt"));
+
+        assertEquals(1.0, failures("expired"));
+        assertEquals(1.0, failures("signature"));
+        assertEquals(1.0, failures("malformed"));
+        assertEquals(3, meterRegistry.get("auth.token.parse").timer().count());
+    }
+
+    @Test
+    void generateAndParse_areTimed() {
+        jwtUtil.parseToken(jwtUtil.generateToken(user()));
+
+        assertEquals(1, meterRegistry.get("auth.token.sign").timer().count());
+        assertEquals(1, meterRegistry.get("auth.token.parse").timer().count());
+        assertEquals(0.0, failures("invalid"));
+    }
+
+    private double failures(String cause) {
+        return meterRegistry.get("auth.token.parse.failures").tag("cause", cause).counter().count();
+    }
+
+    private static User user() {
+        return User.builder()
+                .id(1L)
+                .email("soha@test.com")
+                .role(Role.CUSTOMER)
+                .build();
+    }
+}
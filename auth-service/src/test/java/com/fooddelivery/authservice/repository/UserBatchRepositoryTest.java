@@ -0,0 +1,72 @@
+package com.fooddelivery.authservice.repository;
+
+import com.fooddelivery.authservice.entity.Role;
+import com.fooddelivery.authservice.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk import statements on H2 in MySQL mode.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-batch;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserBatchRepository.class)
+class UserBatchRepositoryTest {
+
+    @Autowired
+    private UserBatchRepository userBatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void insertAllWritesEveryRow() {
+        userBatchRepository.insertAll(List.of(user("a@test.com"), user("b@test.com"), user("c@test.com")));
+
+        assertEquals(3, userRepository.count());
+        User stored = userRepository.findByEmail("b@test.com").orElseThrow();
+        assertEquals(Role.CUSTOMER, stored.getRole());
+        assertEquals("hash", stored.getPassword());
+    }
+
+    @Test
+    void findExistingEmailsReturnsOnlyRegisteredOnes() {
+        userBatchRepository.insertAll(List.of(user("a@test.com"), user("b@test.com")));
+
+        assertEquals(Set.of("a@test.com"),
+                userRepository.findExistingEmails(List.of("a@test.com", "z@test.com")));
+    }
+
+    @Test
+    void duplicateEmailFailsTheBatch() {
+        userBatchRepository.insert(user("a@test.com"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userBatchRepository.insertAll(List.of(user("b@test.com"), user("a@test.com"))));
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .email(email)
+                .name("User")
+                .password("hash")
+                .role(Role.CUSTOMER)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.entity.RevokedAccessToken;
+import com.fooddelivery.authservice.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenRevocationStoreTest {
+
+    @Mock
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Test
+    void shouldRetryBatchAfterFailedFlush() {
+        AccessTokenRevocationStore store =
+                new AccessTokenRevocationStore(revokedAccessTokenRepository, new SimpleMeterRegistry());
+        store.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+        store.revoke("jti-2", new Date(System.currentTimeMillis() + 60_000));
+
+        List<List<String>> attempts = new ArrayList<>();
+        when(revokedAccessTokenRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<RevokedAccessToken> batch = invocation.getArgument(0);
+            attempts.add(batch.stream().map(RevokedAccessToken::getJti).sorted().toList());
+            if (attempts.size() == 1) {
+                batch.get(0).setId(41L);
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            return batch;
+        });
+        when(revokedAccessTokenRepository.save(any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        assertThrows(DataAccessResourceFailureException.class, store::flush);
+        // cleanup still ran
+        verify(revokedAccessTokenRepository).deleteExpired(any());
+        store.flush();
+
+        assertEquals(List.of(List.of("jti-1", "jti-2"), List.of("jti-1", "jti-2")), attempts);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RevokedAccessToken>> retried = ArgumentCaptor.forClass(List.class);
+        verify(revokedAccessTokenRepository, times(2)).saveAll(retried.capture());
+        assertTrue(retried.getValue().stream().allMatch(token -> token.getId() == null));
+        assertTrue(store.isRevoked("jti-1"));
+
+        // nothing left to write
+        store.flush();
+        verify(revokedAccessTokenRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldSkipTokensAlreadyStoredByAnotherNode() {
+        AccessTokenRevocationStore store =
+                new AccessTokenRevocationStore(revokedAccessTokenRepository, new SimpleMeterRegistry());
+        store.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+        store.revoke("jti-2", new Date(System.currentTimeMillis() + 60_000));
+
+        when(revokedAccessTokenRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate jti"));
+        List<String> saved = new ArrayList<>();
+        when(revokedAccessTokenRepository.save(any())).thenAnswer(invocation -> {
+            RevokedAccessToken token = invocation.getArgument(0);
+            if (token.getJti().equals("jti-1")) {
+                throw new DataIntegrityViolationException("duplicate jti");
+            }
+            saved.add(token.getJti());
+            return token;
+        });
+
+        store.flush();
+        store.flush();
+
+        assertEquals(List.of("jti-2"), saved);
+        verify(revokedAccessTokenRepository, times(1)).saveAll(anyList());
+        verify(revokedAccessTokenRepository, times(2)).deleteExpired(any());
+        assertTrue(store.isRevoked("jti-1"));
+    }
+
+    @Test
+    void shouldDropExpiredTokensInsteadOfRetryingThem() throws InterruptedException {
+        AccessTokenRevocationStore store =
+                new AccessTokenRevocationStore(revokedAccessTokenRepository, new SimpleMeterRegistry());
+        store.revoke("jti-1", new Date(System.currentTimeMillis() + 50));
+
+        when(revokedAccessTokenRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+        when(revokedAccessTokenRepository.save(any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        assertThrows(DataAccessResourceFailureException.class, store::flush);
+        Thread.sleep(100);
+        store.flush();
+
+        verify(revokedAccessTokenRepository, times(1)).saveAll(anyList());
+        assertFalse(store.isRevoked("jti-1"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.exception.ApiResponse;
+import com.fooddelivery.authservice.exception.GlobalExceptionHandler;
+import com.fooddelivery.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // one worker and one queue slot, like the production pool at its limit
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1),
+            new ThreadPoolExecutor.AbortPolicy()
+    );
+
+    private final BoundedPasswordEncoder encoder =
+            new BoundedPasswordEncoder(new BlockingEncoder(), executor, 7, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueued();
+
+        ServiceOverloadedException ex = assertThrows(
+                ServiceOverloadedException.class,
+                () -> encoder.matches("third", "hash")
+        );
+        assertEquals(7, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("auth.password.hash.rejected").count());
+
+        // accepted calls still complete once the worker frees up
+        release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRejectBulkHashingInsteadOfHashingOnTheCaller() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueued();
+
+        // the blocking encoder would hang here if the caller hashed the password itself
+        assertThrows(ServiceOverloadedException.class, () -> encoder.encodeAll(List.of("bulk"), 4));
+        assertEquals(1.0, meterRegistry.counter("auth.password.hash.rejected").count());
+
+        release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldWaitForOwnHashesWhenBulkWindowOutgrowsTheQueue() throws Exception {
+        CompletableFuture<List<String>> bulk =
+                CompletableFuture.supplyAsync(() -> encoder.encodeAll(List.of("a", "b", "c"), 3));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        waitForQueued();
+
+        release.countDown();
+
+        assertEquals(List.of("hash:a", "hash:b", "hash:c"), bulk.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.counter("auth.password.hash.rejected").count());
+    }
+
+    @Test
+    void shouldAnswerRejectionWith503AndRetryAfter() {
+        ResponseEntity<ApiResponse> response = new GlobalExceptionHandler().handleServiceOverloaded(
+                new ServiceOverloadedException("Too many authentication requests, please retry later", 7),
+                null
+        );
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private void waitForQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueue().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, executor.getQueue().size());
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.entity.Role;
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenCodecTest {
+
+    private static final String SECRET = "mySuperSecretKeyForJwtFoodDelivery12345";
+
+    private final JwtTokenCodec codec = new JwtTokenCodec(SECRET, 60_000);
+
+    private final User user = User.builder()
+            .id(7L)
+            .email("soha@test.com")
+            .role(Role.RESTAURANT)
+            .build();
+
+    @Test
+    void shouldDecodeEncodedToken() {
+        TokenClaims claims = codec.decode(codec.encode(user));
+
+        assertNotNull(claims.tokenId());
+        assertEquals(7L, claims.userId());
+        assertEquals("soha@test.com", claims.email());
+        assertEquals("RESTAURANT", claims.role());
+        assertTrue(claims.expiresAt().after(claims.issuedAt()));
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        String token = new JwtTokenCodec(SECRET + "-other", 60_000).encode(user);
+
+        JwtException ex = assertThrows(JwtException.class, () -> codec.decode(token));
+        assertEquals("Invalid token", ex.getMessage());
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        String token = new JwtTokenCodec(SECRET, -1_000).encode(user);
+
+        JwtException ex = assertThrows(JwtException.class, () -> codec.decode(token));
+        assertEquals("Token expired", ex.getMessage());
+    }
+}
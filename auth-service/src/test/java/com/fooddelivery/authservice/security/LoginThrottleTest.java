@@ -0,0 +1,73 @@
+package com.fooddelivery.authservice.security;
+
+import com.fooddelivery.authservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final LoginThrottle throttle = new LoginThrottle(
+            new SimpleMeterRegistry(),
+            3, 1,       // ip: burst of 3, 1 per minute
+            2, 1,       // email: burst of 2, 1 per minute
+            3, 900,     // lock after 3 failures for 15 minutes
+            1_000
+    );
+
+    @Test
+    void shouldRejectIpAfterBurstIsUsed() {
+        throttle.checkAllowed("10.0.0.1", "a@test.com");
+        throttle.checkAllowed("10.0.0.1", "b@test.com");
+        throttle.checkAllowed("10.0.0.1", "c@test.com");
+
+        TooManyRequestsException ex = assertThrows(
+                TooManyRequestsException.class,
+                () -> throttle.checkAllowed("10.0.0.1", "d@test.com")
+        );
+        assertTrue(ex.getRetryAfterSeconds() > 0);
+
+        // other clients are not affected
+        throttle.checkAllowed("10.0.0.2", "d@test.com");
+    }
+
+    @Test
+    void shouldRejectEmailAcrossIps() {
+        throttle.checkAllowed("10.0.0.1", "Soha@Test.com");
+        throttle.checkAllowed("10.0.0.2", "soha@test.com");
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> throttle.checkAllowed("10.0.0.3", "soha@test.com")
+        );
+    }
+
+    @Test
+    void shouldLockEmailAfterRepeatedFailuresUntilSuccess() {
+        throttle.recordFailure("10.0.0.1", "soha@test.com");
+        throttle.recordFailure("10.0.0.1", "soha@test.com");
+        throttle.recordFailure("10.0.0.1", "soha@test.com");
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> throttle.checkAllowed("10.0.0.1", "soha@test.com")
+        );
+
+        throttle.recordSuccess("10.0.0.1", "soha@test.com");
+        throttle.checkAllowed("10.0.0.1", "soha@test.com");
+    }
+
+    @Test
+    void shouldNotLockOwnerOutByFailuresFromAnotherIp() {
+        throttle.recordFailure("10.0.0.66", "soha@test.com");
+        throttle.recordFailure("10.0.0.66", "soha@test.com");
+        throttle.recordFailure("10.0.0.66", "Soha@Test.com");
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> throttle.checkAllowed("10.0.0.66", "soha@test.com")
+        );
+        throttle.checkAllowed("10.0.0.1", "soha@test.com");
+    }
+}
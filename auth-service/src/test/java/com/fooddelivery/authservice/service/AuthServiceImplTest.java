@@ -1,21 +1,30 @@
 package com.fooddelivery.authservice.service;
 
 import com.fooddelivery.authservice.dto.requests.LoginRequest;
+import com.fooddelivery.authservice.dto.requests.RefreshTokenRequest;
 import com.fooddelivery.authservice.dto.requests.RegistrationRequest;
 import com.fooddelivery.authservice.dto.response.AuthResponse;
+import com.fooddelivery.authservice.entity.RefreshToken;
 import com.fooddelivery.authservice.entity.Role;
 import com.fooddelivery.authservice.entity.User;
 import com.fooddelivery.authservice.exception.InvalidCredentialsException;
 import com.fooddelivery.authservice.exception.InvalidRoleException;
+import com.fooddelivery.authservice.exception.UserAlreadyExistsException;
+import com.fooddelivery.authservice.metrics.AuthMetrics;
 import com.fooddelivery.authservice.repository.UserRepository;
+import com.fooddelivery.authservice.security.AccessTokenRevocationStore;
 import com.fooddelivery.authservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +42,20 @@ class AuthServiceImplTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private AccessTokenRevocationStore revocationStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -47,9 +70,6 @@ class AuthServiceImplTest {
                 "123456"
                 );
 
-        when(userRepository.existsByEmail(request.getEmail()))
-                .thenReturn(false);
-
         when(passwordEncoder.encode(request.getPassword()))
                 .thenReturn("encoded-password");
 
@@ -58,6 +78,59 @@ class AuthServiceImplTest {
 
         // then
         verify(userRepository).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenEmailAlreadyExists() {
+        // given
+        RegistrationRequest request = new RegistrationRequest(
+                "soha@test.com",
+                "Soha",
+                "CUSTOMER",
+                "123456"
+        );
+
+        when(passwordEncoder.encode(request.getPassword()))
+                .thenReturn("encoded-password");
+
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException(
+                        "duplicate",
+                        new SQLIntegrityConstraintViolationException("Duplicate entry", "23000", 1062)
+                ));
+
+        // then
+        assertThrows(
+                UserAlreadyExistsException.class,
+                () -> authService.registration(request)
+        );
+    }
+
+    @Test
+    void shouldRejectKnownDuplicateBeforeHashing() {
+        // given
+        RegistrationRequest request = new RegistrationRequest(
+                "soha@test.com",
+                "Soha",
+                "CUSTOMER",
+                "123456"
+        );
+
+        when(registeredEmailFilter.mightContain(request.getEmail()))
+                .thenReturn(true);
+
+        when(userRepository.existsByEmail(request.getEmail()))
+                .thenReturn(true);
+
+        // then
+        assertThrows(
+                UserAlreadyExistsException.class,
+                () -> authService.registration(request)
+        );
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -70,9 +143,6 @@ class AuthServiceImplTest {
                 "INVALID_ROLE"
         );
 
-        when(userRepository.existsByEmail(request.getEmail()))
-                .thenReturn(false);
-
         // then
         assertThrows(
                 InvalidRoleException.class,
@@ -101,6 +171,9 @@ class AuthServiceImplTest {
                 .role(Role.CUSTOMER)
                 .build();
 
+        when(registeredEmailFilter.mightContain(request.getEmail()))
+                .thenReturn(true);
+
         when(userRepository.findByEmail(request.getEmail()))
                 .thenReturn(Optional.of(user));
 
@@ -112,12 +185,16 @@ class AuthServiceImplTest {
         when(jwtUtil.generateToken(user))
                 .thenReturn("fake-jwt-token");
 
+        when(refreshTokenService.issue(user))
+                .thenReturn("fake-refresh-token");
+
         // when
         AuthResponse response = authService.login(request);
 
         // then
         assertNotNull(response);
         assertEquals("fake-jwt-token", response.getToken());
+        assertEquals("fake-refresh-token", response.getRefreshToken());
         assertEquals("CUSTOMER", response.getRole());
         assertEquals(1L, response.getId());
     }
@@ -140,6 +217,9 @@ class AuthServiceImplTest {
                 .role(Role.CUSTOMER)
                 .build();
 
+        when(registeredEmailFilter.mightContain(request.getEmail()))
+                .thenReturn(true);
+
         when(userRepository.findByEmail(request.getEmail()))
                 .thenReturn(Optional.of(user));
 
@@ -159,6 +239,28 @@ class AuthServiceImplTest {
     // Login Tests - User Not Found
     // =========================
 
+    @Test
+    void shouldTimeLoginPhasesUpToTheFailedPasswordCheck() {
+        LoginRequest request = new LoginRequest("soha@test.com", "wrong");
+        User user = User.builder()
+                .id(1L)
+                .email("soha@test.com")
+                .password("encoded-password")
+                .role(Role.CUSTOMER)
+                .build();
+
+        when(registeredEmailFilter.mightContain(request.getEmail())).thenReturn(true);
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrong", "encoded-password")).thenReturn(false);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(request));
+
+        assertEquals(1, phaseCount("lookup"));
+        assertEquals(1, phaseCount("password"));
+        assertEquals(0, phaseCount("sign"));
+        assertEquals(0, phaseCount("refresh_token"));
+    }
+
     @Test
     void shouldThrowExceptionWhenUserNotFound() {
         // given
@@ -167,6 +269,9 @@ class AuthServiceImplTest {
                 "123456"
         );
 
+        when(registeredEmailFilter.mightContain(request.getEmail()))
+                .thenReturn(true);
+
         when(userRepository.findByEmail(request.getEmail()))
                 .thenReturn(Optional.empty());
 
@@ -176,4 +281,69 @@ class AuthServiceImplTest {
                 () -> authService.login(request)
         );
     }
+
+    // =========================
+    // Login Tests - Email Ruled Out By Filter
+    // =========================
+
+    @Test
+    void shouldNotQueryDatabaseWhenEmailIsNotRegistered() {
+        // given
+        LoginRequest request = new LoginRequest(
+                "unknown@test.com",
+                "123456"
+        );
+
+        when(registeredEmailFilter.mightContain(request.getEmail()))
+                .thenReturn(false);
+
+        // then
+        assertThrows(
+                InvalidCredentialsException.class,
+                () -> authService.login(request)
+        );
+
+        verify(userRepository, never()).findByEmail(any());
+        verify(passwordEncoder).matches(eq(request.getPassword()), any());
+    }
+
+    // =========================
+    // Refresh Tests
+    // =========================
+
+    @Test
+    void shouldRefreshWithoutCheckingPassword() {
+        // given
+        User user = User.builder()
+                .id(1L)
+                .email("soha@test.com")
+                .password("encoded-password")
+                .role(Role.CUSTOMER)
+                .build();
+
+        RefreshToken previous = RefreshToken.builder()
+                .userId(1L)
+                .build();
+
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.RotatedRefreshToken(previous, "new-refresh-token"));
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        when(jwtUtil.generateToken(user))
+                .thenReturn("new-jwt-token");
+
+        // when
+        AuthResponse response = authService.refresh(new RefreshTokenRequest("old-refresh-token"));
+
+        // then
+        assertEquals("new-jwt-token", response.getToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    private long phaseCount(String phase) {
+        return meterRegistry.get("auth.login.phase").tag("phase", phase).timer().count();
+    }
 }
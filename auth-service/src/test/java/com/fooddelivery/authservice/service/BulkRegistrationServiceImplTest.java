@@ -0,0 +1,197 @@
+package com.fooddelivery.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.authservice.dto.response.BulkRegistrationError;
+import com.fooddelivery.authservice.dto.response.BulkRegistrationResponse;
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.BadRequestException;
+import com.fooddelivery.authservice.repository.UserBatchRepository;
+import com.fooddelivery.authservice.repository.UserRepository;
+import com.fooddelivery.authservice.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkRegistrationServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserBatchRepository userBatchRepository;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    private BulkRegistrationServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new BulkRegistrationServiceImpl(new ObjectMapper(), userRepository, userBatchRepository,
+                passwordEncoder, registeredEmailFilter, 2, 1, 10);
+
+        lenient().when(registeredEmailFilter.mightContain(anyString())).thenReturn(true);
+        lenient().when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        lenient().when(passwordEncoder.encodeAll(anyList(), anyInt())).thenAnswer(invocation ->
+                invocation.<List<CharSequence>>getArgument(0).stream().map(raw -> "hash:" + raw).toList());
+    }
+
+    @Test
+    void shouldInsertOneBatchPerChunk() {
+        BulkRegistrationResponse result = service.registerAll(json(rows(5)));
+
+        assertEquals(5, result.getTotal());
+        assertEquals(5, result.getCreated());
+        assertEquals(0, result.getFailed());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> batches = ArgumentCaptor.forClass(List.class);
+        verify(userBatchRepository, times(3)).insertAll(batches.capture());
+        assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+        assertEquals("hash:secret1", batches.getAllValues().get(0).get(0).getPassword());
+        verify(registeredEmailFilter).add("user5@test.com");
+    }
+
+    @Test
+    void shouldRejectDuplicateEmailWithinUpload() {
+        BulkRegistrationResponse result = service.registerAll(json(
+                row("a@test.com"), row("b@test.com"), row("a@test.com")));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(3), errorRows(result));
+        assertEquals("Duplicate email in upload", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void shouldRejectCaseVariantOfEmailWithinUpload() {
+        BulkRegistrationResponse result = service.registerAll(json(row("A@test.com"), row("a@test.com")));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(2), errorRows(result));
+        assertEquals("Duplicate email in upload", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void shouldRejectCaseVariantOfEmailInDatabase() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("B@Test.com"));
+
+        BulkRegistrationResponse result = service.registerAll(json(row("a@test.com"), row("b@test.com")));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(2), errorRows(result));
+        verify(userBatchRepository).insertAll(argThat(users -> users.size() == 1));
+    }
+
+    @Test
+    void shouldStopReadingAtMaxRows() {
+        BulkRegistrationResponse result = service.registerAll(json(rows(12)));
+
+        assertEquals(10, result.getTotal());
+        assertEquals(10, result.getCreated());
+        assertEquals(List.of(11), errorRows(result));
+        verify(registeredEmailFilter, never()).add("user11@test.com");
+    }
+
+    @Test
+    void shouldRejectEmailsAlreadyInDatabase() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("b@test.com"));
+
+        BulkRegistrationResponse result = service.registerAll(json(row("a@test.com"), row("b@test.com")));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(2), errorRows(result));
+        assertEquals("This email already have account", result.getErrors().get(0).getMessage());
+        verify(passwordEncoder).encodeAll(eq(List.of("secret")), anyInt());
+    }
+
+    @Test
+    void shouldSkipDatabaseCheckForEmailsTheFilterRulesOut() {
+        when(registeredEmailFilter.mightContain(anyString())).thenReturn(false);
+
+        service.registerAll(json(row("a@test.com"), row("b@test.com")));
+
+        verify(userRepository, never()).findExistingEmails(anyCollection());
+    }
+
+    @Test
+    void shouldFallBackToRowByRowOnConstraintViolation() {
+        doThrow(new DataIntegrityViolationException("duplicate")).when(userBatchRepository).insertAll(anyList());
+        // b@test.com was registered by someone else after the existence check
+        doAnswer(invocation -> {
+            if (invocation.<User>getArgument(0).getEmail().equals("b@test.com")) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            return null;
+        }).when(userBatchRepository).insert(any());
+
+        BulkRegistrationResponse result = service.registerAll(json(row("a@test.com"), row("b@test.com")));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(2), errorRows(result));
+        verify(registeredEmailFilter).add("a@test.com");
+        verify(registeredEmailFilter, never()).add("b@test.com");
+    }
+
+    @Test
+    void shouldReportRowOfMalformedJson() {
+        InputStream body = new ByteArrayInputStream(
+                ("[" + row("a@test.com") + "," + row("b@test.com") + ",{\"email\": ]")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.registerAll(body));
+
+        assertEquals("Malformed bulk registration payload at row 3", ex.getMessage());
+    }
+
+    @Test
+    void shouldReportInvalidRowsWithoutFailingTheUpload() {
+        BulkRegistrationResponse result = service.registerAll(json(
+                row("a@test.com"),
+                "{\"email\":\"b@test.com\",\"name\":\"B\",\"role\":\"PILOT\",\"password\":\"secret\"}",
+                "{\"email\":\"c@test.com\",\"role\":\"CUSTOMER\",\"password\":\"secret\"}"));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of("Invalid role", "Email, name, role and password are required"),
+                result.getErrors().stream().map(BulkRegistrationError::getMessage).toList());
+    }
+
+    private static List<Integer> errorRows(BulkRegistrationResponse result) {
+        return result.getErrors().stream().map(BulkRegistrationError::getRow).toList();
+    }
+
+    private static String[] rows(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> "{\"email\":\"user" + i + "@test.com\",\"name\":\"User " + i
+                        + "\",\"role\":\"CUSTOMER\",\"password\":\"secret" + i + "\"}")
+                .toArray(String[]::new);
+    }
+
+    private static String row(String email) {
+        return "{\"email\":\"" + email + "\",\"name\":\"User\",\"role\":\"CUSTOMER\",\"password\":\"secret\"}";
+    }
+
+    private static InputStream json(String... rows) {
+        String array = List.of(rows).stream().collect(Collectors.joining(",", "[", "]"));
+        return new ByteArrayInputStream(array.getBytes(StandardCharsets.UTF_8));
+    }
+}
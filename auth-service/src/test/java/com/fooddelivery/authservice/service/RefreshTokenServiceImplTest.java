@@ -0,0 +1,72 @@
+package com.fooddelivery.authservice.service;
+
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.exception.InvalidCredentialsException;
+import com.fooddelivery.authservice.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rotation on H2 in MySQL mode, outside a test transaction so every call
+ * commits or rolls back on its own.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-token;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RefreshTokenServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceImplTest {
+
+    @Autowired
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @SpyBean
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    void rotate_issueFails_keepsTheTokenUsable() {
+        String rawToken = refreshTokenService.issue(user());
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(refreshTokenRepository).save(any());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> refreshTokenService.rotate(rawToken));
+
+        reset(refreshTokenRepository);
+        assertNotNull(refreshTokenService.rotate(rawToken).rawToken());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesTheFamily() {
+        String rawToken = refreshTokenService.issue(user());
+        String successor = refreshTokenService.rotate(rawToken).rawToken();
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(rawToken));
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(successor));
+    }
+
+    private static User user() {
+        return User.builder().id(1L).build();
+    }
+}
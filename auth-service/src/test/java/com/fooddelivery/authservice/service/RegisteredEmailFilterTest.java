@@ -0,0 +1,90 @@
+package com.fooddelivery.authservice.service;
+
+import com.fooddelivery.authservice.entity.User;
+import com.fooddelivery.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEmailFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RegisteredEmailFilter filter;
+
+    @BeforeEach
+    void setup() {
+        filter = new RegisteredEmailFilter(userRepository, new SimpleMeterRegistry(), 0.01, 1_000, 2, Duration.ofSeconds(30));
+
+        when(userRepository.findMaxId()).thenReturn(10L);
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("known@test.com"));
+        filter.build();
+    }
+
+    @Test
+    void shouldPickUpRegistrationsFromOtherNodes() {
+        assertFalse(filter.mightContain("elsewhere@test.com"));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(8L), any(Pageable.class)))
+                .thenReturn(List.of(user(9L, "known@test.com"), user(10L, "Elsewhere@test.com")));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        filter.sync();
+
+        assertTrue(filter.mightContain("elsewhere@test.com"));
+        assertEquals(10L, filter.cursor());
+    }
+
+    @Test
+    void shouldRecheckIdsThatCommitBelowTheCursor() {
+        // id 11 was still uncommitted when 12 became visible
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(8L), any(Pageable.class)))
+                .thenReturn(List.of(user(12L, "first@test.com")));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class)))
+                .thenReturn(List.of());
+        filter.sync();
+        assertFalse(filter.mightContain("late@test.com"));
+
+        when(userRepository.findByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Set<Long>>getArgument(0).contains(11L) ? List.of(user(11L, "late@test.com")) : List.of());
+        filter.sync();
+
+        assertTrue(filter.mightContain("late@test.com"));
+        assertEquals(12L, filter.cursor());
+    }
+
+    @Test
+    void shouldKeepServingTheOldFilterDuringRebuild() {
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> {
+            // a rebuild scan in progress must not report registered emails as absent
+            assertTrue(filter.mightContain("known@test.com"));
+            filter.add("during@test.com");
+            return Stream.of("known@test.com", "other@test.com");
+        });
+
+        filter.build();
+
+        assertTrue(filter.mightContain("other@test.com"));
+        assertTrue(filter.mightContain("during@test.com"));
+    }
+
+    private static User user(Long id, String email) {
+        return User.builder().id(id).email(email).build();
+    }
+}
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Builds both services with the H2 driver, starts them on the loadtest profile,
+# runs the harness against them and stops them again.
+#
+#   load-harness/run-local.sh [harness options]      e.g. --concurrency=64 --duration=2m
+#
+# SEEDED_USERS (default 100000) sizes the synthetic data set. Data is kept in
+# */target/loadtest between runs; delete those directories to reseed.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+SEEDED_USERS="${SEEDED_USERS:-100000}"
+# the services refuse to start without a shared internal token, pick one per run
+export INTERNAL_API_TOKEN="${INTERNAL_API_TOKEN:-$(head -c 24 /dev/urandom | base64)}"
+PIDS=()
+
+cleanup() {
+  for pid in "${PIDS[@]}"; do kill "$pid" 2>/dev/null || true; done
+  wait || true
+}
+trap cleanup EXIT
+
+for service in auth-service user-service; do
+  (cd "$ROOT/$service" && mvn -B -q -Ploadtest -DskipTests package)
+done
+
+start() {
+  local service=$1
+  (cd "$ROOT/$service" && exec java ${SERVICE_JAVA_OPTS:-} -jar "target/$service-0.0.1-SNAPSHOT.jar" \
+      --spring.profiles.active=loadtest --loadtest.seed.users="$SEEDED_USERS" \
+      > target/loadtest.log 2>&1) &
+  PIDS+=($!)
+}
+start auth-service
+start user-service
+
+cd "$ROOT/load-harness"
+mvn -B -q compile exec:java -Dexec.args="--seeded-users=$SEEDED_USERS $*"
@@ -0,0 +1,37 @@
+package com.fooddelivery.loadharness;
+
+import java.util.Arrays;
+
+/** Operations the harness drives, named as on the command line and in the report. */
+enum Endpoint {
+
+    REGISTER("register", "POST /auth/registration"),
+    LOGIN("login", "POST /auth/login"),
+    GET_BASIC("get-basic", "GET /profile/basic"),
+    GET_ADDRESS("get-address", "GET /profile/address"),
+    GET_IMAGE("get-image", "GET /profile/image"),
+    PUT_IMAGE("put-image", "PUT /profile/image");
+
+    private final String optionName;
+    private final String route;
+
+    Endpoint(String optionName, String route) {
+        this.optionName = optionName;
+        this.route = route;
+    }
+
+    String optionName() {
+        return optionName;
+    }
+
+    String route() {
+        return route;
+    }
+
+    static Endpoint fromName(String name) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.optionName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + name));
+    }
+}
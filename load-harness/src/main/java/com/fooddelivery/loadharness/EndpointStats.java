@@ -0,0 +1,46 @@
+package com.fooddelivery.loadharness;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one endpoint. Recording is wait-free;
+ * {@link #reset()} discards everything recorded so far (end of warmup).
+ */
+final class EndpointStats {
+
+    // 1 µs to 10 min at 3 significant digits
+    private static final long MAX_LATENCY_MICROS = 600_000_000L;
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(Math.max(latencyNanos / 1_000, 1), MAX_LATENCY_MICROS));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        recorder.getIntervalHistogram();
+        errors.reset();
+        statuses.clear();
+    }
+
+    Snapshot snapshot() {
+        Histogram histogram = recorder.getIntervalHistogram();
+        Map<Integer, Long> statusCounts = new java.util.TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new Snapshot(histogram, errors.sum(), statusCounts);
+    }
+
+    record Snapshot(Histogram latencyMicros, long errors, Map<Integer, Long> statuses) {
+    }
+}
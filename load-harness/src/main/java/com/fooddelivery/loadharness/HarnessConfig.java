@@ -0,0 +1,109 @@
+package com.fooddelivery.loadharness;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all in {@code --name=value} form.
+ *
+ * <pre>
+ * --auth-url        auth-service base URL            (http://localhost:8080/api/auth-service)
+ * --user-url        user-service base URL            (http://localhost:8081/user-service)
+ * --seeded-users    users seeded by the loadtest profile, ids 1..n (100000)
+ * --password        password of the seeded users     (LoadTest123!)
+ * --concurrency     concurrent virtual users         (32)
+ * --duration        measured run time, e.g. 60s, 5m  (60s)
+ * --warmup          unmeasured run time before it    (15s)
+ * --rate            total target requests/second, 0 = closed loop as fast as possible (0)
+ * --mix             endpoint weights                 (login=2,register=1,get-basic=40,get-address=30,get-image=20,put-image=7)
+ * --image-bytes     size of uploaded images          (20480)
+ * --s3-port         port of the embedded S3 stub, 0 = do not start one (9000)
+ * --ready-timeout   how long to wait for seeding     (10m)
+ * --report          JSON report path                 (target/load-report.json)
+ * </pre>
+ */
+record HarnessConfig(
+        URI authUrl,
+        URI userUrl,
+        long seededUsers,
+        String password,
+        int concurrency,
+        Duration duration,
+        Duration warmup,
+        double rate,
+        Map<Endpoint, Integer> mix,
+        int imageBytes,
+        int s3Port,
+        Duration readyTimeout,
+        String reportPath
+) {
+
+    static HarnessConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        HarnessConfig config = new HarnessConfig(
+                URI.create(stripSlash(take(options, "auth-url", "http://localhost:8080/api/auth-service"))),
+                URI.create(stripSlash(take(options, "user-url", "http://localhost:8081/user-service"))),
+                Long.parseLong(take(options, "seeded-users", "100000")),
+                take(options, "password", "LoadTest123!"),
+                Integer.parseInt(take(options, "concurrency", "32")),
+                duration(take(options, "duration", "60s")),
+                duration(take(options, "warmup", "15s")),
+                Double.parseDouble(take(options, "rate", "0")),
+                mix(take(options, "mix", "login=2,register=1,get-basic=40,get-address=30,get-image=20,put-image=7")),
+                Integer.parseInt(take(options, "image-bytes", "20480")),
+                Integer.parseInt(take(options, "s3-port", "9000")),
+                duration(take(options, "ready-timeout", "10m")),
+                take(options, "report", "target/load-report.json")
+        );
+
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        return config;
+    }
+
+    private static String take(Map<String, String> options, String name, String defaultValue) {
+        String value = options.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    static Duration duration(String value) {
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Duration must end in s, m or h: " + value);
+        };
+    }
+
+    private static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
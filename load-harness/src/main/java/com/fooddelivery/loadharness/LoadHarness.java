@@ -0,0 +1,57 @@
+package com.fooddelivery.loadharness;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Entry point: starts the S3 stub, waits until both services have finished
+ * seeding, runs the workload and reports per-endpoint latency and throughput.
+ * See {@link HarnessConfig} for the options.
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessConfig config = HarnessConfig.parse(args);
+
+        try (S3Stub s3Stub = config.s3Port() > 0 ? S3Stub.start(config.s3Port()) : null) {
+            ServiceClient client = new ServiceClient(config);
+            awaitReady(client, config);
+
+            System.out.printf("Running %d virtual users for %s after %s warmup%s%n",
+                    config.concurrency(), config.duration(), config.warmup(),
+                    config.rate() > 0 ? " at " + config.rate() + " req/s" : "");
+
+            Workload.Result result = new Workload(config, client).run();
+
+            Report.print(result, System.out);
+            Report.writeJson(result, config, s3Stub);
+            System.out.println("\nReport written to " + config.reportPath());
+        }
+    }
+
+    /**
+     * The last seeded user can log in and has a profile once both services
+     * finished seeding.
+     */
+    private static void awaitReady(ServiceClient client, HarnessConfig config) throws InterruptedException {
+        String email = "user" + config.seededUsers() + "@load.test";
+        long deadline = System.nanoTime() + config.readyTimeout().toNanos();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                ServiceClient.LoginResult login = client.login(email, config.password());
+                if (login.token() != null && client.get("/profile/basic", login.token()) == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // not listening yet
+            }
+            System.out.println("Waiting for services to finish seeding " + config.seededUsers() + " users...");
+            Thread.sleep(Duration.ofSeconds(5).toMillis());
+        }
+        throw new IllegalStateException("Services not ready after " + config.readyTimeout());
+    }
+}
@@ -0,0 +1,97 @@
+package com.fooddelivery.loadharness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Per-endpoint throughput and latency percentiles, as a table and as JSON. */
+final class Report {
+
+    private Report() {
+    }
+
+    static void print(Workload.Result result, PrintStream out) {
+        double seconds = result.measured().toNanos() / 1e9;
+        out.printf("%n%-26s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        result.endpoints().forEach((endpoint, snapshot) -> {
+            Histogram latency = snapshot.latencyMicros();
+            if (latency.getTotalCount() == 0) {
+                return;
+            }
+            out.printf("%-26s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.route(),
+                    latency.getTotalCount(),
+                    snapshot.errors(),
+                    latency.getTotalCount() / seconds,
+                    millis(latency, 50),
+                    millis(latency, 99),
+                    millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0);
+            if (snapshot.errors() > 0) {
+                out.printf("%-26s statuses %s%n", "", snapshot.statuses());
+            }
+        });
+    }
+
+    static void writeJson(Workload.Result result, HarnessConfig config, S3Stub s3Stub) throws IOException {
+        double seconds = result.measured().toNanos() / 1e9;
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        result.endpoints().forEach((endpoint, snapshot) -> {
+            Histogram latency = snapshot.latencyMicros();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("route", endpoint.route());
+            entry.put("count", latency.getTotalCount());
+            entry.put("errors", snapshot.errors());
+            entry.put("statuses", snapshot.statuses());
+            entry.put("throughputPerSecond", latency.getTotalCount() / seconds);
+            entry.put("meanMs", latency.getTotalCount() == 0 ? 0 : latency.getMean() / 1000.0);
+            entry.put("p50Ms", millis(latency, 50));
+            entry.put("p99Ms", millis(latency, 99));
+            entry.put("p999Ms", millis(latency, 99.9));
+            entry.put("maxMs", latency.getMaxValue() / 1000.0);
+            endpoints.put(endpoint.optionName(), entry);
+        });
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", Instant.now().toString());
+        run.put("measuredSeconds", seconds);
+        run.put("concurrency", config.concurrency());
+        run.put("targetRate", config.rate());
+        run.put("seededUsers", config.seededUsers());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.mix().forEach((endpoint, weight) -> mix.put(endpoint.optionName(), weight));
+        run.put("mix", mix);
+        run.put("imageBytes", config.imageBytes());
+        if (s3Stub != null) {
+            run.put("s3Objects", s3Stub.objects());
+            run.put("s3Bytes", s3Stub.bytes());
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("run", run);
+        report.put("endpoints", endpoints);
+
+        Path path = Path.of(config.reportPath());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), report);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
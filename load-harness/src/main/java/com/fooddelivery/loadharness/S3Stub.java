@@ -0,0 +1,125 @@
+package com.fooddelivery.loadharness;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal S3-compatible endpoint for user-service's path-style {@code putObject}.
+ * Bodies are read, hashed for the ETag and discarded, so uploads cost network and
+ * parsing on the service side without filling the disk. Other operations answer 404.
+ */
+final class S3Stub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final LongAdder objects = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    private S3Stub(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    static S3Stub start(int port) throws IOException {
+        S3Stub stub = new S3Stub(port);
+        stub.server.start();
+        return stub;
+    }
+
+    long objects() {
+        return objects.sum();
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"PUT".equals(exchange.getRequestMethod())) {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            MessageDigest md5 = md5();
+            String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+            long size = contentSha256 != null && contentSha256.startsWith("STREAMING-")
+                    ? readChunked(exchange.getRequestBody(), md5)
+                    : read(exchange.getRequestBody(), md5);
+
+            objects.increment();
+            bytes.add(size);
+            // the SDK compares the ETag with the MD5 of what it sent
+            exchange.getResponseHeaders().add("ETag", "\"" + HexFormat.of().formatHex(md5.digest()) + "\"");
+            exchange.sendResponseHeaders(200, -1);
+        }
+    }
+
+    private static long read(InputStream body, MessageDigest md5) throws IOException {
+        byte[] buffer = new byte[16 * 1024];
+        long total = 0;
+        for (int read; (read = body.read(buffer)) != -1; ) {
+            md5.update(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Decodes {@code aws-chunked} framing: {@code <hex size>[;extensions]\r\n<data>\r\n}
+     * repeated, ending with a zero-size chunk and optional trailers.
+     */
+    private static long readChunked(InputStream body, MessageDigest md5) throws IOException {
+        long total = 0;
+        while (true) {
+            String header = readLine(body);
+            int extensions = header.indexOf(';');
+            int size = Integer.parseInt((extensions >= 0 ? header.substring(0, extensions) : header).trim(), 16);
+            if (size == 0) {
+                body.transferTo(OutputStream.nullOutputStream());
+                return total;
+            }
+            byte[] chunk = body.readNBytes(size);
+            md5.update(chunk);
+            total += chunk.length;
+            readLine(body);
+        }
+    }
+
+    private static String readLine(InputStream body) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int b; (b = body.read()) != -1 && b != '\n'; ) {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,103 @@
+package com.fooddelivery.loadharness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/** Blocking HTTP calls against both services, one method per endpoint. */
+final class ServiceClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String BOUNDARY = "load-harness-boundary";
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final URI authUrl;
+    private final URI userUrl;
+
+    ServiceClient(HarnessConfig config) {
+        this.authUrl = config.authUrl();
+        this.userUrl = config.userUrl();
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /** Status and access token, the token is null unless the login succeeded. */
+    record LoginResult(int status, String token) {
+    }
+
+    LoginResult login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(jsonPost(
+                authUrl + "/auth/login",
+                Map.of("email", email, "password", password)));
+
+        if (response.statusCode() != 200) {
+            return new LoginResult(response.statusCode(), null);
+        }
+        JsonNode token = json.readTree(response.body()).path("data").path("token");
+        return new LoginResult(response.statusCode(), token.isTextual() ? token.asText() : null);
+    }
+
+    int register(String email, String name, String password) throws IOException, InterruptedException {
+        return send(jsonPost(
+                authUrl + "/auth/registration",
+                Map.of("email", email, "name", name, "role", "CUSTOMER", "password", password)
+        )).statusCode();
+    }
+
+    int get(String path, String token) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(userUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build()).statusCode();
+    }
+
+    int putImage(String token, byte[] multipartBody) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(userUrl + "/profile/image"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(multipartBody))
+                .build()).statusCode();
+    }
+
+    /** A multipart body with a single {@code image} part of the given size. */
+    static byte[] imageUpload(int imageBytes) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"avatar.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        byte[] body = new byte[head.length + imageBytes + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        for (int i = 0; i < imageBytes; i++) {
+            body[head.length + i] = (byte) (i * 31 + 7);
+        }
+        System.arraycopy(tail, 0, body, head.length + imageBytes, tail.length);
+        return body;
+    }
+
+    private HttpRequest jsonPost(String url, Map<String, String> body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                .build();
+    }
+
+    // bodies are always read in full, as a real client would
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
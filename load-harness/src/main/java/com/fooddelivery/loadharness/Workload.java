@@ -0,0 +1,147 @@
+package com.fooddelivery.loadharness;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs {@code concurrency} virtual users, each on its own thread, picking endpoints
+ * by the configured weights.
+ * <p>
+ * Every virtual user starts by logging in as a random seeded user; a {@code login}
+ * pick switches it to another one. With {@code --rate} each virtual user follows a
+ * fixed schedule and latency is measured from the scheduled start, so time spent
+ * queueing behind a slow response counts (no coordinated omission). Without it the
+ * loop is closed and reports service time at maximum throughput.
+ */
+final class Workload {
+
+    /** Status recorded when the request did not get an HTTP response at all. */
+    static final int TRANSPORT_ERROR = 599;
+
+    private final HarnessConfig config;
+    private final ServiceClient client;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final Endpoint[] pickTable;
+    private final byte[] imageUpload;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong registrations = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    Workload(HarnessConfig config, ServiceClient client) {
+        this.config = config;
+        this.client = client;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        this.pickTable = pickTable(config.mix());
+        this.imageUpload = ServiceClient.imageUpload(config.imageBytes());
+    }
+
+    record Result(Map<Endpoint, EndpointStats.Snapshot> endpoints, Duration measured) {
+    }
+
+    Result run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency());
+        for (int i = 0; i < config.concurrency(); i++) {
+            workers.execute(this::virtualUser);
+        }
+
+        Thread.sleep(config.warmup().toMillis());
+        stats.values().forEach(EndpointStats::reset);
+
+        long start = System.nanoTime();
+        Thread.sleep(config.duration().toMillis());
+        Map<Endpoint, EndpointStats.Snapshot> snapshots = new EnumMap<>(Endpoint.class);
+        stats.forEach((endpoint, endpointStats) -> snapshots.put(endpoint, endpointStats.snapshot()));
+        Duration measured = Duration.ofNanos(System.nanoTime() - start);
+
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        return new Result(snapshots, measured);
+    }
+
+    private void virtualUser() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intervalNanos = config.rate() > 0
+                ? (long) (config.concurrency() * 1_000_000_000L / config.rate())
+                : 0;
+        // spread the first requests of paced users over one interval
+        long nextStart = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+        String token = null;
+
+        while (running) {
+            long intendedStart = System.nanoTime();
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(nextStart - intendedStart);
+                intendedStart = nextStart;
+                nextStart += intervalNanos;
+            }
+
+            Endpoint endpoint = token == null ? Endpoint.LOGIN : pickTable[random.nextInt(pickTable.length)];
+            int status;
+            try {
+                if (endpoint == Endpoint.LOGIN) {
+                    ServiceClient.LoginResult login = client.login(randomSeededEmail(random), config.password());
+                    status = login.status();
+                    if (login.token() != null) {
+                        token = login.token();
+                    }
+                } else {
+                    status = call(endpoint, token);
+                    // access token expired during a long run, log in again
+                    if (status == 401) {
+                        token = null;
+                    }
+                }
+            } catch (IOException ex) {
+                status = TRANSPORT_ERROR;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            stats.get(endpoint).record(System.nanoTime() - intendedStart, status);
+        }
+    }
+
+    private int call(Endpoint endpoint, String token) throws IOException, InterruptedException {
+        return switch (endpoint) {
+            case REGISTER -> {
+                long n = registrations.incrementAndGet();
+                yield client.register("reg-" + runId + "-" + n + "@load.test", "Registered " + n, config.password());
+            }
+            case GET_BASIC -> client.get("/profile/basic", token);
+            case GET_ADDRESS -> client.get("/profile/address", token);
+            case GET_IMAGE -> client.get("/profile/image", token);
+            case PUT_IMAGE -> client.putImage(token, imageUpload);
+            case LOGIN -> throw new IllegalStateException("login is handled by the caller");
+        };
+    }
+
+    private String randomSeededEmail(ThreadLocalRandom random) {
+        return "user" + random.nextLong(1, config.seededUsers() + 1) + "@load.test";
+    }
+
+    private static Endpoint[] pickTable(Map<Endpoint, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Endpoint[] table = new Endpoint[total];
+        int index = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                table[index++] = entry.getKey();
+            }
+        }
+        return table;
+    }
+}
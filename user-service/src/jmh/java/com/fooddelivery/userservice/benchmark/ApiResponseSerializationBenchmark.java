@@ -0,0 +1,60 @@
+package com.fooddelivery.userservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fooddelivery.userservice.dto.mapper.UserProfileMapperImpl;
+import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.exception.ApiResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body of {@code GET /profile/basic}: building the {@link ApiResponse} envelope and
+ * writing it with an ObjectMapper configured the way Spring MVC configures its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter typedWriter;
+    private UserProfileBasicResponse body;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        typedWriter = objectMapper.writerFor(
+                new TypeReference<ApiResponse<UserProfileBasicResponse>>() { });
+        body = new UserProfileMapperImpl().toBasicResponse(BenchmarkData.profile(1L, Role.CUSTOMER));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(envelope());
+    }
+
+    @Benchmark
+    public byte[] serializeWithTypedWriter() throws JsonProcessingException {
+        return typedWriter.writeValueAsBytes(envelope());
+    }
+
+    private ApiResponse<UserProfileBasicResponse> envelope() {
+        return ApiResponse.<UserProfileBasicResponse>builder()
+                .status(HttpStatus.OK.value())
+                .message("Your profile data")
+                .data(body)
+                .timeStamp(LocalDateTime.now())
+                .build();
+    }
+}
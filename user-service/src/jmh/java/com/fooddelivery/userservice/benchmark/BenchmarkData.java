@@ -0,0 +1,50 @@
+package com.fooddelivery.userservice.benchmark;
+
+import com.fooddelivery.userservice.dto.request.UserProfileUpsertBasicDataRequest;
+import com.fooddelivery.userservice.entity.Gender;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.entity.UserStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Fixtures shared by the benchmarks, shaped like a fully onboarded profile. */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static UserProfile profile(long userId, Role role) {
+        return UserProfile.builder()
+                .userId(userId)
+                .fullName("Benchmark User " + userId)
+                .phone(String.format("01%09d", userId))
+                .email("user" + userId + "@bench.com")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .gender(Gender.MALE)
+                .country("Egypt")
+                .city("Cairo")
+                .area("Nasr City")
+                .street("Abbas El Akkad")
+                .buildingNumber("12")
+                .apartmentNumber("4")
+                .latitude(30.0561 + userId * 1e-6)
+                .longitude(31.3301 + userId * 1e-6)
+                .profileImageUrl("https://bucket.s3.amazonaws.com/profiles/" + userId + ".png")
+                .role(role)
+                .status(UserStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static UserProfileUpsertBasicDataRequest basicDataRequest() {
+        return UserProfileUpsertBasicDataRequest.builder()
+                .fullName("Updated Name")
+                .phone("01000000000")
+                .dateOfBirth(LocalDate.of(1991, 2, 3))
+                .gender("female")
+                .build();
+    }
+}
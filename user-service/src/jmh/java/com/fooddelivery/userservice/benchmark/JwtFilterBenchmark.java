@@ -0,0 +1,85 @@
+package com.fooddelivery.userservice.benchmark;
+
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import com.fooddelivery.userservice.security.JwtFilter;
+import com.fooddelivery.userservice.security.JwtUtil;
+import com.fooddelivery.userservice.security.RevocationSync;
+import com.fooddelivery.userservice.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost per request: the full {@link JwtFilter} path (cache hit plus
+ * revocation lookup) against verifying the signature on every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "mySuperSecretKeyForJwtFoodDelivery12345";
+
+    private JwtUtil jwtUtil;
+    private JwtFilter jwtFilter;
+    private String token;
+
+    private final FilterChain noopChain = (request, response) -> { };
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100_000, 3_600_000);
+        // never polled here, the revocation set stays empty
+        RevocationSync revocationSync = new RevocationSync(
+                RestClient.builder(), meterRegistry, "http://localhost:0", "unused", 1000);
+        jwtFilter = new JwtFilter(cache, revocationSync);
+
+        token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("bench@test.com")
+                .addClaims(Map.of("userId", 42L, "email", "bench@test.com", "role", "CUSTOMER"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public void filter(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/profile/basic");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), noopChain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        // measured on purpose: every request ends with it, and a per-invocation
+        // @TearDown would distort timings this short
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseUncached() {
+        return jwtUtil.toAuthenticatedUser(jwtUtil.parseVerifiedClaims(token));
+    }
+}
@@ -0,0 +1,81 @@
+package com.fooddelivery.userservice.benchmark;
+
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserStatus;
+import com.fooddelivery.userservice.geo.Haversine;
+import com.fooddelivery.userservice.geo.RestaurantSpatialIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-restaurant search through {@link RestaurantSpatialIndex} against a full
+ * scan of the same coordinates, over restaurants spread across a large city.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RestaurantSpatialIndexBenchmark {
+
+    private static final double MIN_LATITUDE = 29.85;
+    private static final double MIN_LONGITUDE = 31.05;
+    private static final double SPAN_DEGREES = 0.4;
+
+    @Param({"300000"})
+    public int restaurants;
+
+    @Param({"20"})
+    public int limit;
+
+    private RestaurantSpatialIndex index;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // the repository is only used by the startup load
+        index = new RestaurantSpatialIndex(null, new SimpleMeterRegistry(), 0.01);
+        latitudes = new double[restaurants];
+        longitudes = new double[restaurants];
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < restaurants; i++) {
+            latitudes[i] = MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+            longitudes[i] = MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+            index.update((long) i + 1, Role.RESTAURANT, UserStatus.ACTIVE, latitudes[i], longitudes[i]);
+        }
+    }
+
+    @Benchmark
+    public List<RestaurantSpatialIndex.Match> nearestIndexed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.nearest(
+                MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES,
+                MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES,
+                limit,
+                50
+        );
+    }
+
+    // what a query over every restaurant costs, before sorting
+    @Benchmark
+    public void nearestFullScan(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latitude = MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+        double longitude = MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+
+        double nearest = Double.MAX_VALUE;
+        for (int i = 0; i < latitudes.length; i++) {
+            nearest = Math.min(nearest, Haversine.distanceKm(latitude, longitude, latitudes[i], longitudes[i]));
+        }
+        blackhole.consume(nearest);
+    }
+}
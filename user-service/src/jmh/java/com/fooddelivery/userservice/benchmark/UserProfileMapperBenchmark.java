@@ -0,0 +1,48 @@
+package com.fooddelivery.userservice.benchmark;
+
+import com.fooddelivery.userservice.dto.mapper.UserProfileMapper;
+import com.fooddelivery.userservice.dto.mapper.UserProfileMapperImpl;
+import com.fooddelivery.userservice.dto.request.UserProfileUpsertBasicDataRequest;
+import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** The MapStruct generated {@link UserProfileMapper} on its own. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserProfileMapperBenchmark {
+
+    private final UserProfileMapper mapper = new UserProfileMapperImpl();
+
+    private UserProfile profile;
+    private UserProfileUpsertBasicDataRequest request;
+
+    @Setup
+    public void setup() {
+        profile = BenchmarkData.profile(1L, Role.CUSTOMER);
+        request = BenchmarkData.basicDataRequest();
+    }
+
+    @Benchmark
+    public UserProfileBasicResponse toBasicResponse() {
+        return mapper.toBasicResponse(profile);
+    }
+
+    @Benchmark
+    public UserProfile toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public UserProfile updateEntityFromDto() {
+        mapper.updateEntityFromDto(request, profile);
+        return profile;
+    }
+}
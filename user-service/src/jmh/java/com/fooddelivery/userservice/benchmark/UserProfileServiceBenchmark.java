@@ -0,0 +1,160 @@
+package com.fooddelivery.userservice.benchmark;
+
+import com.fooddelivery.userservice.UserServiceApplication;
+import com.fooddelivery.userservice.cache.UserProfileCache;
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import com.fooddelivery.userservice.dto.request.UserProfileUpdateLocationRequest;
+import com.fooddelivery.userservice.dto.request.UserProfileUpsertBasicDataRequest;
+import com.fooddelivery.userservice.dto.response.UserProfileAddressResponse;
+import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.geo.LocationWriteBuffer;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import com.fooddelivery.userservice.service.UserProfileService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserProfileService} read and update paths through the real Spring context
+ * (transactions, Hibernate, MapStruct) with H2 standing in for MySQL. The
+ * {@code *CacheMiss} variants drop the profile from the near cache first, and
+ * {@link #flushLocations} writes a buffer of pending location pushes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserProfileServiceBenchmark {
+
+    private static final int PROFILES = 10_000;
+    private static final int PENDING_LOCATIONS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private UserProfileService userProfileService;
+    private UserProfileCache profileCache;
+    private LocationWriteBuffer locationBuffer;
+
+    private final UserProfileUpsertBasicDataRequest basicDataRequest = BenchmarkData.basicDataRequest();
+    private final UserProfileUpdateLocationRequest locationRequest =
+            new UserProfileUpdateLocationRequest(30.0444, 31.2357);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // command line arguments take precedence over application.yml
+        context = new SpringApplicationBuilder(UserServiceApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:profile-bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.fooddelivery.userservice.security=ERROR",
+                "--server.port=0",
+                "--aws.access.key=benchmark",
+                "--aws.secret.key=benchmark",
+                "--spring.security.internal.token=benchmark",
+                "--auth-service.internal-token=benchmark",
+                "--auth-service.revocation.poll-interval-ms=3600000",
+                // only flushLocations writes the buffer, not the scheduler or a stale push
+                "--user-profile.location-buffer.flush-interval-ms=3600000",
+                "--user-profile.location-buffer.max-staleness=1h"
+        );
+        userProfileService = context.getBean(UserProfileService.class);
+        profileCache = context.getBean(UserProfileCache.class);
+        locationBuffer = context.getBean(LocationWriteBuffer.class);
+
+        // even ids are customers, odd ids restaurants
+        List<UserProfile> profiles = new ArrayList<>(PROFILES);
+        for (long userId = 1; userId <= PROFILES; userId++) {
+            profiles.add(BenchmarkData.profile(userId, userId % 2 == 0 ? Role.CUSTOMER : Role.RESTAURANT));
+        }
+        context.getBean(UserProfileRepository.class).saveAll(profiles);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserProfileBasicResponse getUserProfile() {
+        return userProfileService.getUserProfile(randomUserId());
+    }
+
+    @Benchmark
+    public UserProfileBasicResponse getUserProfileCacheMiss() {
+        long userId = randomUserId();
+        profileCache.invalidateAll(Set.of(userId));
+        return userProfileService.getUserProfile(userId);
+    }
+
+    @Benchmark
+    public UserProfileAddressResponse getUserAddress() {
+        return userProfileService.getUserAddress(randomUserId());
+    }
+
+    @Benchmark
+    public UserProfileAddressResponse getUserAddressCacheMiss() {
+        long userId = randomUserId();
+        profileCache.invalidateAll(Set.of(userId));
+        return userProfileService.getUserAddress(userId);
+    }
+
+    @Benchmark
+    public UserProfileBasicResponse upsertBasicDataUpdate() {
+        long userId = randomUserId();
+        // phone is unique, keep each profile's own number
+        basicDataRequest.setPhone(String.format("01%09d", userId));
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId + "@bench.com", "CUSTOMER");
+        return userProfileService.upsertBasicData(user, basicDataRequest);
+    }
+
+    @Benchmark
+    public void updateLocation() {
+        long restaurantId = ThreadLocalRandom.current().nextLong(PROFILES / 2) * 2 + 1;
+        userProfileService.updateLocation(locationRequest, restaurantId);
+    }
+
+    /**
+     * One flush of {@link #PENDING_LOCATIONS} restaurant pushes: the JDBC batch
+     * updates, the change-log rows and the read-back of the cached profiles.
+     */
+    @Benchmark
+    public int flushLocations(PendingLocations pendingLocations) {
+        return locationBuffer.flush();
+    }
+
+    @State(Scope.Thread)
+    public static class PendingLocations {
+
+        @Setup(Level.Invocation)
+        public void push(UserProfileServiceBenchmark benchmark) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < PENDING_LOCATIONS; i++) {
+                long restaurantId = i * 2L + 1;
+                benchmark.locationBuffer.put(restaurantId,
+                        30.0 + random.nextDouble(0.1), 31.2 + random.nextDouble(0.1));
+            }
+            // about half of the pushed restaurants are read often enough to be cached
+            for (int i = 0; i < PENDING_LOCATIONS; i += 2) {
+                benchmark.userProfileService.getUserProfile(i * 2L + 1);
+            }
+        }
+    }
+
+    private static long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, PROFILES + 1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.fooddelivery.userservice.cache;
+
+import java.util.Set;
+
+/**
+ * Notified by {@link ProfileChangeLog} of profiles that another node changed,
+ * for node-local state derived from profiles beyond the near cache.
+ */
+public interface ProfileChangeListener {
+
+    void profilesChanged(Set<Long> userIds);
+}
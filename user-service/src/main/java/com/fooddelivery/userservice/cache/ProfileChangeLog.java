@@ -0,0 +1,235 @@
+package com.fooddelivery.userservice.cache;
+
+import com.fooddelivery.userservice.entity.ProfileChange;
+import com.fooddelivery.userservice.repository.ProfileChangeRepository;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the near caches of all nodes coherent without a broker. Profile writes
+ * append a row to {@code user_profile_changes} in their own transaction, and
+ * every node tails the table by id and refreshes the changed profiles it has
+ * cached in its {@link UserProfileCache} from the primary, in batches of
+ * {@code page-size}. Changed profiles it has not cached cost no read.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so a slower
+ * transaction can surface below the cursor. Skipped ids are re-checked until
+ * they appear or {@code gap-timeout} passes (rolled back inserts never do).
+ * A change thus reaches every node within one poll interval of its commit.
+ */
+@Component
+@Slf4j
+public class ProfileChangeLog {
+
+    // bounds one poll after a burst of writes or a long pause
+    private static final int MAX_PAGES_PER_POLL = 50;
+    private static final int MAX_PENDING_GAPS = 10_000;
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO user_profile_changes (user_id, origin, changed_at) VALUES (?, ?, ?)";
+
+    private final ProfileChangeRepository profileChangeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserProfileRepository userProfileRepository;
+    private final UserProfileCache profileCache;
+    private final List<ProfileChangeListener> listeners;
+    private final int pageSize;
+    private final long gapTimeoutMillis;
+    private final Duration retention;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // skipped id -> when it was first seen missing
+    private final Map<Long, Long> pendingGaps = new ConcurrentHashMap<>();
+    private final Counter invalidations;
+    private final Counter failures;
+
+    private volatile long cursor = -1;
+
+    public ProfileChangeLog(
+            ProfileChangeRepository profileChangeRepository,
+            JdbcTemplate jdbcTemplate,
+            UserProfileRepository userProfileRepository,
+            UserProfileCache profileCache,
+            List<ProfileChangeListener> listeners,
+            MeterRegistry meterRegistry,
+            @Value("${user-profile.change-log.page-size:500}") int pageSize,
+            @Value("${user-profile.change-log.gap-timeout:30s}") Duration gapTimeout,
+            @Value("${user-profile.change-log.retention:1h}") Duration retention
+    ) {
+        this.profileChangeRepository = profileChangeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userProfileRepository = userProfileRepository;
+        this.profileCache = profileCache;
+        this.listeners = listeners;
+        this.pageSize = pageSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.retention = retention;
+
+        this.invalidations = Counter.builder("user.profiles.change.log.invalidations")
+                .description("Cached profiles refreshed because another node changed them")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.profiles.change.log.failures")
+                .register(meterRegistry);
+        Gauge.builder("user.profiles.change.log.pending.gaps", pendingGaps, Map::size)
+                .description("Change-log ids skipped by the cursor and not committed yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a profile change in the caller's transaction, so the change-log
+     * row commits or rolls back together with the profile.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long userId) {
+        profileChangeRepository.save(ProfileChange.builder()
+                .userId(userId)
+                .origin(nodeId)
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Records changes of many profiles in the caller's transaction as one JDBC
+     * batch. Hibernate cannot batch inserts for IDENTITY ids.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(Collection<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, userIds, userIds.size(), (statement, userId) -> {
+            statement.setLong(1, userId);
+            statement.setString(2, nodeId);
+            statement.setObject(3, now);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${user-profile.change-log.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            if (cursor < 0) {
+                // nothing before this point can be cached yet, except what was
+                // loaded while the cursor was unset
+                cursor = profileChangeRepository.findMaxId();
+                profileCache.invalidateAll();
+                return;
+            }
+
+            Set<Long> changedUsers = new HashSet<>();
+            recheckGaps(changedUsers);
+
+            for (int page = 0; page < MAX_PAGES_PER_POLL; page++) {
+                List<ProfileChange> changes = profileChangeRepository
+                        .findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, pageSize));
+                for (ProfileChange change : changes) {
+                    rememberGaps(cursor, change.getId());
+                    collect(change, changedUsers);
+                    cursor = change.getId();
+                }
+                if (changes.size() < pageSize) {
+                    break;
+                }
+            }
+
+            if (!changedUsers.isEmpty()) {
+                refresh(changedUsers);
+                invalidations.increment(changedUsers.size());
+                notifyListeners(changedUsers);
+            }
+
+        } catch (DataAccessException ex) {
+            failures.increment();
+            log.warn("Profile change-log poll failed at cursor {}: {}", cursor, ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-profile.change-log.prune-interval-ms:600000}")
+    @Transactional
+    public void prune() {
+        int deleted = profileChangeRepository.deleteChangedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Pruned {} profile change-log rows", deleted);
+        }
+    }
+
+    long cursor() {
+        return cursor;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private void refresh(Set<Long> changedUsers) {
+        List<Long> userIds = new ArrayList<>(changedUsers);
+        for (int from = 0; from < userIds.size(); from += pageSize) {
+            List<Long> batch = userIds.subList(from, Math.min(from + pageSize, userIds.size()));
+            try {
+                profileCache.refreshAll(batch, userProfileRepository::findByUserIdIn);
+            } catch (DataAccessException ex) {
+                // dropped all the same, so the cursor may move on
+                failures.increment();
+                log.warn("Refreshing {} changed profiles failed: {}", batch.size(), ex.getMessage());
+            }
+        }
+    }
+
+    private void notifyListeners(Set<Long> changedUsers) {
+        for (ProfileChangeListener listener : listeners) {
+            try {
+                listener.profilesChanged(changedUsers);
+            } catch (RuntimeException ex) {
+                failures.increment();
+                log.warn("{} failed to apply {} profile changes: {}",
+                        listener.getClass().getSimpleName(), changedUsers.size(), ex.getMessage());
+            }
+        }
+    }
+
+    private void recheckGaps(Set<Long> changedUsers) {
+        if (pendingGaps.isEmpty()) {
+            return;
+        }
+
+        long expiredBefore = System.currentTimeMillis() - gapTimeoutMillis;
+        pendingGaps.values().removeIf(firstSeen -> firstSeen < expiredBefore);
+
+        for (ProfileChange change : profileChangeRepository.findByIdIn(pendingGaps.keySet())) {
+            pendingGaps.remove(change.getId());
+            collect(change, changedUsers);
+        }
+    }
+
+    private void rememberGaps(long previous, long next) {
+        long now = System.currentTimeMillis();
+        for (long id = previous + 1; id < next && pendingGaps.size() < MAX_PENDING_GAPS; id++) {
+            pendingGaps.put(id, now);
+        }
+    }
+
+    private void collect(ProfileChange change, Set<Long> changedUsers) {
+        if (!nodeId.equals(change.getOrigin())) {
+            changedUsers.add(change.getUserId());
+        }
+    }
+}
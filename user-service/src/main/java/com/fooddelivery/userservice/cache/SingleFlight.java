@@ -0,0 +1,134 @@
+package com.fooddelivery.userservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load,
+ * callers arriving while it is in flight wait for and share its result or
+ * exception. Nothing is kept once the load has finished.
+ * <p>
+ * Fan-in is recorded per flight, and per key for the most recently loaded
+ * keys, to spot hot keys without tagging meters by key.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<K, KeyCounters> keyCounters;
+
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final DistributionSummary fanIn;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry, long trackedKeys) {
+        this.keyCounters = Caffeine.newBuilder()
+                .maximumSize(trackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        this.leaders = Counter.builder(name)
+                .description("Loads by whether they ran or joined one in flight")
+                .tag("result", "leader")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(name)
+                .description("Loads by whether they ran or joined one in flight")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.fanIn = DistributionSummary.builder(name + ".fan.in")
+                .description("Callers served by one load")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            running.callers.incrementAndGet();
+            coalesced.increment();
+            counters(key).coalesced.increment();
+            return running.await();
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.get();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+            int callers = flight.callers.get();
+            fanIn.record(callers);
+            counters(key).recordFlight(callers);
+        }
+    }
+
+    /**
+     * Tracked keys with the most coalesced callers first.
+     */
+    public List<KeyStats> hottestKeys(int limit) {
+        return keyCounters.asMap().entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(String.valueOf(entry.getKey())))
+                .sorted(Comparator.comparingLong(KeyStats::coalesced).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private KeyCounters counters(K key) {
+        return keyCounters.get(key, k -> new KeyCounters());
+    }
+
+    public record KeyStats(String key, long loads, long coalesced, int maxFanIn) {
+    }
+
+    private static class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger callers = new AtomicInteger(1);
+
+        V await() {
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (ex.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private static class KeyCounters {
+
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final AtomicInteger maxFanIn = new AtomicInteger();
+
+        void recordFlight(int callers) {
+            loads.increment();
+            maxFanIn.accumulateAndGet(callers, Math::max);
+        }
+
+        KeyStats snapshot(String key) {
+            return new KeyStats(key, loads.sum(), coalesced.sum(), maxFanIn.get());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.fooddelivery.userservice.cache;
+
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.util.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded near cache of profiles by userId for the read endpoints.
+ * <p>
+ * Write paths replace the entry with the saved profile once their transaction
+ * has committed, so a rolled back write never becomes visible and a reload
+ * cannot pick up an older row from a lagging replica. Other nodes refresh their
+ * entry from the primary through {@link ProfileChangeLog}; the TTL is only a
+ * safety net.
+ * <p>
+ * Concurrent misses for the same user share one repository load. A load that
+ * overlaps a write or invalidation of its user is returned but not cached.
+ * <p>
+ * Cached profiles are shared between requests and must not be modified; write
+ * paths load their own copy from the repository.
+ */
+@Component
+public class UserProfileCache {
+
+    private static final int STAMP_STRIPES = 1024;
+    private static final int TRACKED_HOT_KEYS = 1000;
+
+    private final Cache<Long, UserProfile> cache;
+    private final SingleFlight<Long, Optional<UserProfile>> loads;
+
+    // bumped by every write and invalidation of a user in the stripe
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public UserProfileCache(
+            MeterRegistry meterRegistry,
+            @Value("${user-profile.cache.max-size:100000}") long maxSize,
+            @Value("${user-profile.cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.profiles");
+        Gauge.builder("user.profiles.cache.hit.ratio", cache, profiles -> profiles.stats().hitRate())
+                .description("Share of profile reads served from the near cache")
+                .register(meterRegistry);
+
+        this.loads = new SingleFlight<>("user.profiles.loads", meterRegistry, TRACKED_HOT_KEYS);
+    }
+
+    /**
+     * Returns the cached profile, loading it on a miss. Missing profiles are not cached.
+     */
+    public Optional<UserProfile> get(Long userId, Function<Long, Optional<UserProfile>> loader) {
+        UserProfile cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return loads.execute(userId, () -> load(userId, loader));
+    }
+
+    /**
+     * The cached profile, without loading it on a miss.
+     */
+    public Optional<UserProfile> getIfPresent(Long userId) {
+        return Optional.ofNullable(cache.getIfPresent(userId));
+    }
+
+    public List<SingleFlight.KeyStats> hottestLoads(int limit) {
+        return loads.hottestKeys(limit);
+    }
+
+    /**
+     * Caches the saved profile after the current transaction commits, or right
+     * away when there is no transaction.
+     */
+    public void putAfterCommit(UserProfile profile) {
+        TransactionCallbacks.afterCommit(() -> {
+            stamps.incrementAndGet(stripe(profile.getUserId()));
+            cache.put(profile.getUserId(), profile);
+        });
+    }
+
+    /**
+     * Replaces the entries of the cached users among them with profiles the
+     * loader reads from the primary. Merely dropping them would let the next
+     * miss cache the previous row from a lagging replica until the TTL. Users
+     * not cached here, or that the loader does not return, are only dropped:
+     * reading them would cost the primary a load for profiles nobody reads on
+     * this node.
+     */
+    public void refreshAll(Collection<Long> userIds, Function<Collection<Long>, List<UserProfile>> primaryLoader) {
+        // containsKey, so the check does not count as a cache hit or miss
+        List<Long> cached = userIds.stream()
+                .filter(cache.asMap()::containsKey)
+                .toList();
+
+        // loads that overlap the refresh are not cached
+        invalidateAll(userIds);
+        if (cached.isEmpty()) {
+            return;
+        }
+        for (UserProfile profile : primaryLoader.apply(cached)) {
+            stamps.incrementAndGet(stripe(profile.getUserId()));
+            cache.put(profile.getUserId(), profile);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> userIds) {
+        userIds.forEach(userId -> stamps.incrementAndGet(stripe(userId)));
+        cache.invalidateAll(userIds);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < STAMP_STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    private Optional<UserProfile> load(Long userId, Function<Long, Optional<UserProfile>> loader) {
+        long stamp = stamps.get(stripe(userId));
+        Optional<UserProfile> profile = loader.apply(userId);
+
+        // a write that committed meanwhile has put the newer profile already
+        if (profile.isPresent() && stamps.get(stripe(userId)) == stamp) {
+            cache.asMap().putIfAbsent(userId, profile.get());
+        }
+        return profile;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STAMP_STRIPES - 1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.fooddelivery.userservice.configration;
+
+import com.fooddelivery.userservice.datasource.ReadWriteRoutingDataSource;
+import com.fooddelivery.userservice.datasource.ReadYourWritesTracker;
+import com.fooddelivery.userservice.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write split: read-only transactions go to the replicas in
+ * {@code spring.datasource.routing.replicas}, everything else to the primary
+ * configured under {@code spring.datasource}. Replica pools copy the primary's
+ * Hikari settings.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(name = "spring.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            HikariDataSource primaryDataSource,
+            RoutingDataSourceProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        List<RoutingDataSourceProperties.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            pools.put(key, replicaPool(key, replicas.get(i), primaryDataSource, meterRegistry));
+        }
+
+        return new ReplicaLagMonitor(pools, properties.getLagQuery(), properties.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            RoutingDataSourceProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                replicaLagMonitor,
+                new ReadYourWritesTracker(properties.getStickyWindow()),
+                meterRegistry
+        );
+
+        Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.replicas());
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        // defer the routing decision until the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource replicaPool(
+            String key,
+            RoutingDataSourceProperties.Replica replica,
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry
+    ) {
+        // started lazily on first use, a replica that is down must not fail startup
+        HikariDataSource dataSource = new HikariDataSource();
+        primaryDataSource.copyStateTo(dataSource);
+        dataSource.setPoolName(key);
+        dataSource.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            dataSource.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            dataSource.setPassword(replica.getPassword());
+        }
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package com.fooddelivery.userservice.configration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "spring.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+
+    // replicas above this lag get no reads
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    // reads after the user's own write stay on the primary this long
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
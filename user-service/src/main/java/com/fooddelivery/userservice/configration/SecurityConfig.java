@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -16,10 +17,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import java.time.LocalDateTime;
 
 @Configuration
+// @RolesAllowed on controller methods, answered by the access denied handler below
+@EnableMethodSecurity(jsr250Enabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    // Boot's mapper, it knows how to write the LocalDateTime time stamps
+    private final ObjectMapper objectMapper;
 
     @Bean
     public SecurityFilterChain FilterChain(HttpSecurity http) throws Exception {
@@ -31,6 +36,8 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
+                        // internal endpoints check X-Internal-Token themselves
+                        .requestMatchers("/internal/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
@@ -45,7 +52,7 @@ public class SecurityConfig {
 
                             response.setStatus(HttpStatus.UNAUTHORIZED.value());
                             response.setContentType("application/json");
-                            new ObjectMapper().writeValue(
+                            objectMapper.writeValue(
                                     response.getOutputStream(), error
                             );
                         })
@@ -59,7 +66,7 @@ public class SecurityConfig {
 
                             response.setStatus(HttpStatus.FORBIDDEN.value());
                             response.setContentType("application/json");
-                            new ObjectMapper().writeValue(
+                            objectMapper.writeValue(
                                     response.getOutputStream(), error
                             );
                         })
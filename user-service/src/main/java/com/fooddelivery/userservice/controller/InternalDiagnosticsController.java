@@ -0,0 +1,138 @@
+package com.fooddelivery.userservice.controller;
+
+import com.fooddelivery.userservice.cache.SingleFlight;
+import com.fooddelivery.userservice.cache.UserProfileCache;
+import com.fooddelivery.userservice.diagnostics.ContinuousRecording;
+import com.fooddelivery.userservice.exception.ApiResponse;
+import com.fooddelivery.userservice.exception.JwtAuthenticationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Operator endpoints for the continuous JFR recording and hot-key statistics.
+ * Guarded by the shared internal token rather than a user JWT.
+ */
+@RestController
+@RequestMapping("/internal/diagnostics")
+public class InternalDiagnosticsController {
+
+    private static final int MAX_HOT_KEYS = 1000;
+
+    private final ContinuousRecording continuousRecording;
+    private final UserProfileCache profileCache;
+    private final byte[] internalToken;
+
+    public InternalDiagnosticsController(
+            ContinuousRecording continuousRecording,
+            UserProfileCache profileCache,
+            @Value("${spring.security.internal.token}") String internalToken
+    ) {
+        if (internalToken.isBlank()) {
+            throw new IllegalArgumentException("spring.security.internal.token must not be blank");
+        }
+
+        this.continuousRecording = continuousRecording;
+        this.profileCache = profileCache;
+        this.internalToken = internalToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping("/jfr/start")
+    public ResponseEntity<ApiResponse<Void>> start(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token
+    ) {
+        checkToken(token);
+
+        String message = continuousRecording.start()
+                ? "JFR recording started"
+                : "JFR recording is already running";
+
+        return ResponseEntity.ok(ApiResponse.<Void>builder()
+                .status(HttpStatus.OK.value())
+                .message(message)
+                .timeStamp(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Streams a snapshot of the running recording; the temporary dump file is
+     * deleted once the response has been written.
+     */
+    @GetMapping("/jfr/dump")
+    public ResponseEntity<Resource> dump(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token
+    ) throws IOException {
+        checkToken(token);
+
+        Path file = continuousRecording.dump();
+        long size = Files.size(file);
+        InputStreamResource body = new InputStreamResource(
+                Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<ApiResponse<Void>> stop(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token
+    ) {
+        checkToken(token);
+
+        String message = continuousRecording.stop()
+                ? "JFR recording stopped"
+                : "No JFR recording is running";
+
+        return ResponseEntity.ok(ApiResponse.<Void>builder()
+                .status(HttpStatus.OK.value())
+                .message(message)
+                .timeStamp(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Profiles whose concurrent cache misses were coalesced the most, among
+     * the recently loaded ones.
+     */
+    @GetMapping("/profile-loads")
+    public ResponseEntity<ApiResponse<List<SingleFlight.KeyStats>>> profileLoads(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        checkToken(token);
+
+        return ResponseEntity.ok(ApiResponse.<List<SingleFlight.KeyStats>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Profile loads by coalesced callers")
+                .data(profileCache.hottestLoads(Math.min(Math.max(limit, 1), MAX_HOT_KEYS)))
+                .timeStamp(LocalDateTime.now())
+                .build());
+    }
+
+    private void checkToken(String token) {
+        if (token == null || !MessageDigest.isEqual(internalToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new JwtAuthenticationException("Invalid internal token");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fooddelivery.userservice.controller;
+
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import com.fooddelivery.userservice.dto.response.NearbyRestaurantPageResponse;
+import com.fooddelivery.userservice.dto.response.NearbyRestaurantResponse;
+import com.fooddelivery.userservice.exception.ApiResponse;
+import com.fooddelivery.userservice.service.RestaurantSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/restaurants")
+@RequiredArgsConstructor
+public class RestaurantController {
+
+    private final RestaurantSearchService restaurantSearchService;
+
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<List<NearbyRestaurantResponse>>> findNearby(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "20") Integer limit,
+            @RequestParam(required = false) Double radiusKm
+    ) {
+        ApiResponse<List<NearbyRestaurantResponse>> response = ApiResponse.<List<NearbyRestaurantResponse>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Nearby restaurants")
+                .data(restaurantSearchService.findNearby(latitude, longitude, limit, radiusKm))
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    // every restaurant in the radius, nearest first, paged with the returned keyset
+    @GetMapping("/within")
+    public ResponseEntity<ApiResponse<NearbyRestaurantPageResponse>> findWithin(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "20") Integer limit,
+            @RequestParam(required = false) Double afterDistanceKm,
+            @RequestParam(required = false) Long afterUserId
+    ) {
+        ApiResponse<NearbyRestaurantPageResponse> response = ApiResponse.<NearbyRestaurantPageResponse>builder()
+                .status(HttpStatus.OK.value())
+                .message("Restaurants within radius")
+                .data(restaurantSearchService.findWithin(
+                        latitude, longitude, radiusKm, limit, afterDistanceKm, afterUserId))
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    // restaurants in the caller's delivery-zone cell and its neighbor ring
+    @GetMapping("/delivery-zone")
+    public ResponseEntity<ApiResponse<List<NearbyRestaurantResponse>>> findInDeliveryZone(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) Integer resolution,
+            @RequestParam(defaultValue = "1") Integer ring,
+            @RequestParam(defaultValue = "20") Integer limit
+    ) {
+        ApiResponse<List<NearbyRestaurantResponse>> response = ApiResponse.<List<NearbyRestaurantResponse>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Restaurants in your delivery zone")
+                .data(restaurantSearchService.findInDeliveryZone(user.getUserId(), resolution, ring, limit))
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,6 +1,7 @@
 package com.fooddelivery.userservice.controller;
 
 import com.fooddelivery.userservice.dto.request.*;
+import com.fooddelivery.userservice.dto.response.LocationUpdateResultResponse;
 import com.fooddelivery.userservice.dto.response.UserProfileAddressResponse;
 import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
 import com.fooddelivery.userservice.dto.response.UserProfilePictureResponse;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/profile")
@@ -104,6 +106,42 @@ public class UserProfileController {
         return ResponseEntity.ok(response);
     }
 
+    // results per entry: one rejected branch does not fail the others
+    @PutMapping("/locations")
+    @RolesAllowed({"RESTAURANT", "ADMIN"})
+    public ResponseEntity<ApiResponse<List<LocationUpdateResultResponse>>> updateLocations(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody UserProfileUpdateLocationsRequest request
+    ) {
+        List<LocationUpdateResultResponse> results = userProfileService.updateLocations(user, request);
+        ApiResponse<List<LocationUpdateResultResponse>> response = ApiResponse.<List<LocationUpdateResultResponse>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Locations processed")
+                .data(results)
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    // ================= OWNERSHIP =================
+
+    @PutMapping("/{userId}/owner")
+    @RolesAllowed("ADMIN")
+    public ResponseEntity<ApiResponse<Void>> assignOwner(
+            @PathVariable Long userId,
+            @Valid @RequestBody UserProfileAssignOwnerRequest request
+    ) {
+        userProfileService.assignOwner(userId, request);
+        ApiResponse<Void> response = ApiResponse.<Void>builder()
+                .status(HttpStatus.OK.value())
+                .message("Owner updated successfully")
+                .timeStamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
     // ================= PROFILE IMAGE =================
 
     @PutMapping("/image")
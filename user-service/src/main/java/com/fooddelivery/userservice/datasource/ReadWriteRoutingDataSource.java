@@ -0,0 +1,88 @@
+package com.fooddelivery.userservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything
+ * else to the primary. Reads stay on the primary while the user's own write
+ * is inside the sticky window, or when no replica is within the allowed lag.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}, so the connection
+ * is only chosen once the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReadWriteRoutingDataSource(
+            ReplicaLagMonitor lagMonitor,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry
+    ) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+
+        this.writes = routed(meterRegistry, PRIMARY, "write");
+        this.stickyReads = routed(meterRegistry, PRIMARY, "read_your_writes");
+        this.fallbackReads = routed(meterRegistry, PRIMARY, "replica_lag");
+        this.replicaReads = routed(meterRegistry, "replica", "read");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            writes.increment();
+            return PRIMARY;
+        }
+
+        if (readYourWrites.isSticky(ReadYourWritesTracker.currentUserId())) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+
+        String replica = lagMonitor.nextReplica();
+        if (replica == null) {
+            fallbackReads.increment();
+            return PRIMARY;
+        }
+
+        replicaReads.increment();
+        return replica;
+    }
+
+    private void rememberWriter() {
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        // only a committed write has to be visible to the next read
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.markWritten(userId);
+            }
+        });
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("user.datasource.connections")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
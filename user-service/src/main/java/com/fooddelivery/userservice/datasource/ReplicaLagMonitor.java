@@ -0,0 +1,137 @@
+package com.fooddelivery.userservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls every replica for its replication lag and hands out the ones within
+ * {@code max-lag} round-robin. A replica that cannot be reached, has stopped
+ * replicating or lags too far behind gets no reads until it recovers.
+ * <p>
+ * The lag query defaults to MySQL's {@code SHOW REPLICA STATUS}. Any query
+ * returning the lag in seconds in its first column works as well, and a blank
+ * query only checks that the replica answers (for stand-ins without replication).
+ * <p>
+ * Owns the replica pools and closes them on shutdown.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthy = List.of();
+
+    public ReplicaLagMonitor(
+            Map<String, DataSource> replicas,
+            String lagQuery,
+            Duration maxLag,
+            MeterRegistry meterRegistry
+    ) {
+        this.replicas = Map.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        replicas.keySet().forEach(key ->
+                Gauge.builder("user.datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(key, Double.NaN))
+                        .description("Replication lag of a read replica, NaN while it is unreachable")
+                        .baseUnit("seconds")
+                        .tag("replica", key)
+                        .register(meterRegistry));
+    }
+
+    public Map<String, DataSource> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Next replica within the allowed lag, or {@code null} if there is none.
+     */
+    public String nextReplica() {
+        List<String> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.routing.lag-check-interval-ms:1000}")
+    public void check() {
+        List<String> current = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            double lag = measureLag(replica.getKey(), replica.getValue());
+            lagSeconds.put(replica.getKey(), lag);
+            // NaN never compares as within the limit
+            if (lag <= maxLagSeconds) {
+                current.add(replica.getKey());
+            }
+        }
+        current.sort(null);
+
+        if (!current.equals(healthy)) {
+            log.info("Replicas serving reads changed from {} to {}", healthy, current);
+        }
+        healthy = List.copyOf(current);
+    }
+
+    private double measureLag(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!StringUtils.hasText(lagQuery)) {
+                return connection.isValid(1) ? 0 : Double.NaN;
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                // no row: the server is not replicating at all
+                if (!resultSet.next()) {
+                    return Double.NaN;
+                }
+                Object lag = resultSet.getObject(lagColumn(resultSet.getMetaData()));
+                return lag instanceof Number number ? number.doubleValue() : Double.NaN;
+            }
+        } catch (SQLException e) {
+            log.debug("Replication lag check failed for replica {}", key, e);
+            return Double.NaN;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (LAG_COLUMNS.contains(metaData.getColumnLabel(column))) {
+                return column;
+            }
+        }
+        return 1;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import com.fooddelivery.userservice.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Continuous in-process JFR recording, so production can be profiled without
+ * an agent or a JVM restart. Uses the JDK's low-overhead {@code default}
+ * settings; the custom user-service events are enabled by default and only
+ * recorded above their {@code @Threshold}, unless {@code event-threshold}
+ * overrides it for all of them.
+ * <p>
+ * Started at boot with {@code diagnostics.jfr.enabled=true}, or later through
+ * the internal diagnostics endpoint. Data older than {@code max-age} or beyond
+ * {@code max-size} is dropped from the on-disk repository.
+ */
+@Component
+@Slf4j
+public class ContinuousRecording {
+
+    static final String RECORDING_NAME = "user-service-continuous";
+
+    private static final List<Class<? extends Event>> CUSTOM_EVENTS = List.of(
+            JwtVerificationEvent.class,
+            MapperCallEvent.class,
+            RepositoryCallEvent.class,
+            S3PutObjectEvent.class
+    );
+
+    private final boolean startOnBoot;
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Path dumpDirectory;
+    private final Duration eventThreshold;
+
+    private Recording recording;
+
+    public ContinuousRecording(
+            @Value("${diagnostics.jfr.enabled:false}") boolean startOnBoot,
+            @Value("${diagnostics.jfr.settings:default}") String settings,
+            @Value("${diagnostics.jfr.max-age:30m}") Duration maxAge,
+            @Value("${diagnostics.jfr.max-size:256MB}") DataSize maxSize,
+            @Value("${diagnostics.jfr.dump-directory:${java.io.tmpdir}}") Path dumpDirectory,
+            @Value("${diagnostics.jfr.event-threshold:#{null}}") Duration eventThreshold
+    ) {
+        this.startOnBoot = startOnBoot;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.dumpDirectory = dumpDirectory;
+        this.eventThreshold = eventThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    /**
+     * Starts the recording unless it is already running.
+     *
+     * @return {@code false} if a recording was already running
+     */
+    public synchronized boolean start() {
+        if (recording != null) {
+            return false;
+        }
+
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new BadRequestException("Unknown JFR settings: " + settings);
+        }
+        if (eventThreshold != null) {
+            CUSTOM_EVENTS.forEach(event -> started.enable(event).withThreshold(eventThreshold));
+        }
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSize.toBytes());
+        started.start();
+
+        recording = started;
+        log.info("Started JFR recording '{}' with {} settings, keeping {} / {}",
+                RECORDING_NAME, settings, maxAge, maxSize);
+        return true;
+    }
+
+    /**
+     * Writes what the running recording currently holds to a new file in the
+     * dump directory. The recording keeps running.
+     */
+    public synchronized Path dump() {
+        if (recording == null) {
+            throw new BadRequestException("No JFR recording is running");
+        }
+
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path file = Files.createTempFile(dumpDirectory, "user-service-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump JFR recording", e);
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * @return {@code false} if no recording was running
+     */
+    public synchronized boolean stop() {
+        if (recording == null) {
+            return false;
+        }
+
+        recording.close();
+        recording = null;
+        log.info("Stopped JFR recording '{}'", RECORDING_NAME);
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        stop();
+    }
+}
@@ -0,0 +1,80 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import com.fooddelivery.userservice.dto.mapper.UserProfileMapper;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits {@link RepositoryCallEvent}s and {@link MapperCallEvent}s around the
+ * profile repository and mapper beans. The events only cost a timestamp pair
+ * while no recording has them enabled.
+ */
+@Component
+public class JfrEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof UserProfileRepository) {
+            return withAdvice(bean, UserProfileRepository.class, repositoryCalls("UserProfileRepository"));
+        }
+        if (bean instanceof UserProfileMapper) {
+            return withAdvice(bean, UserProfileMapper.class, mapperCalls("UserProfileMapper"));
+        }
+        return bean;
+    }
+
+    static Object withAdvice(Object bean, Class<?> type, MethodInterceptor interceptor) {
+        // Spring Data repositories already are proxies, add to their chain
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addInterface(type);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(type.getClassLoader());
+    }
+
+    static MethodInterceptor repositoryCalls(String repository) {
+        return invocation -> {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            event.begin();
+            boolean succeeded = false;
+            try {
+                Object result = invocation.proceed();
+                succeeded = true;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.succeeded = succeeded;
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    static MethodInterceptor mapperCalls(String mapper) {
+        return invocation -> {
+            MapperCallEvent event = new MapperCallEvent();
+            event.begin();
+            try {
+                return invocation.proceed();
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.mapper = mapper;
+                    event.method = invocation.getMethod().getName();
+                    event.commit();
+                }
+            }
+        };
+    }
+}
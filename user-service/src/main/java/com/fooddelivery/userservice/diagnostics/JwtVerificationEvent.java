@@ -0,0 +1,26 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * Token handling in {@code JwtFilter}: verified-token cache lookup, signature
+ * check on a miss and the revocation check. Recorded for every request: cache
+ * hits take microseconds, so a duration threshold would drop nearly all of them.
+ */
+@Name("com.fooddelivery.userservice.JwtVerification")
+@Label("JWT Verification")
+@Category({"Food Delivery", "User Service"})
+@StackTrace(false)
+@Threshold("0 ms")
+public class JwtVerificationEvent extends Event {
+
+    public static final String AUTHENTICATED = "authenticated";
+    public static final String REVOKED = "revoked";
+    public static final String INVALID = "invalid";
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("User Id")
+    public long userId;
+}
@@ -0,0 +1,17 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import jdk.jfr.*;
+
+@Name("com.fooddelivery.userservice.MapperCall")
+@Label("Mapper Call")
+@Category({"Food Delivery", "User Service"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class MapperCallEvent extends Event {
+
+    @Label("Mapper")
+    public String mapper;
+
+    @Label("Method")
+    public String method;
+}
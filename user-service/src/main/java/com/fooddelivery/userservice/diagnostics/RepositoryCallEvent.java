@@ -0,0 +1,24 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * One call on a Spring Data repository, including the time spent waiting for
+ * a pooled connection.
+ */
+@Name("com.fooddelivery.userservice.RepositoryCall")
+@Label("Repository Call")
+@Category({"Food Delivery", "User Service"})
+@StackTrace(false)
+@Threshold("20 ms")
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,27 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import jdk.jfr.*;
+
+@Name("com.fooddelivery.userservice.S3PutObject")
+@Label("S3 putObject")
+@Category({"Food Delivery", "User Service"})
+@StackTrace(false)
+@Threshold("20 ms")
+public class S3PutObjectEvent extends Event {
+
+    @Label("Bucket")
+    public String bucket;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Content Type")
+    public String contentType;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,15 @@
+package com.fooddelivery.userservice.dto.projection;
+
+/**
+ * Restaurant with its distance from the searched point, from a native query.
+ */
+public interface RestaurantDistanceView {
+
+    Long getUserId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Double getDistanceKm();
+}
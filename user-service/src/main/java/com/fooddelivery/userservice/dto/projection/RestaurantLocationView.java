@@ -0,0 +1,7 @@
+package com.fooddelivery.userservice.dto.projection;
+
+/**
+ * Coordinates of an active restaurant, as loaded into the spatial index.
+ */
+public record RestaurantLocationView(Long userId, Double latitude, Double longitude) {
+}
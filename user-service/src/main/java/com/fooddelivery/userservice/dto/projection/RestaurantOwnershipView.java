@@ -0,0 +1,10 @@
+package com.fooddelivery.userservice.dto.projection;
+
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserStatus;
+
+/**
+ * What a bulk location update needs to authorize and index one profile.
+ */
+public record RestaurantOwnershipView(Long userId, Role role, UserStatus status, Long ownerId) {
+}
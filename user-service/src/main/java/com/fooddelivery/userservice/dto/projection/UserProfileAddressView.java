@@ -0,0 +1,16 @@
+package com.fooddelivery.userservice.dto.projection;
+
+/**
+ * Address columns of a profile, read without loading the entity.
+ */
+public record UserProfileAddressView(
+        String country,
+        String city,
+        String area,
+        String street,
+        String buildingNumber,
+        String apartmentNumber,
+        Double latitude,
+        Double longitude
+) {
+}
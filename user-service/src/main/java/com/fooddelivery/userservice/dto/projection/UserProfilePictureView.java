@@ -0,0 +1,8 @@
+package com.fooddelivery.userservice.dto.projection;
+
+/**
+ * Profile picture of a profile, read without loading the entity. Wrapped so a
+ * profile without a picture can be told apart from a missing profile.
+ */
+public record UserProfilePictureView(String profileImageUrl) {
+}
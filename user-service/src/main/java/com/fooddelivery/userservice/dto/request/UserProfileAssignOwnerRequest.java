@@ -0,0 +1,16 @@
+package com.fooddelivery.userservice.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserProfileAssignOwnerRequest {
+
+    // null removes the current owner
+    private Long ownerId;
+}
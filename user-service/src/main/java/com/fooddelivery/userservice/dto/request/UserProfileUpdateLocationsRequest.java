@@ -0,0 +1,36 @@
+package com.fooddelivery.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserProfileUpdateLocationsRequest {
+
+    @NotEmpty(message = "At least one location is required")
+    @Size(max = 1000, message = "At most 1000 locations per request")
+    private List<@Valid @NotNull Location> locations;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Location {
+
+        @NotNull(message = "User id is required")
+        private Long userId;
+
+        private Double latitude;
+        private Double longitude;
+    }
+}
@@ -18,4 +18,8 @@ public class UserProfileUpsertAddressRequest {
     private String buildingNumber;
     private String apartmentNumber;
 
+    // optional, both or neither; places the profile in its delivery-zone cells
+    private Double latitude;
+    private Double longitude;
+
 }
@@ -0,0 +1,20 @@
+package com.fooddelivery.userservice.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LocationUpdateResultResponse {
+
+    private Long userId;
+    private Result result;
+    private String message;
+
+    public enum Result {
+        UPDATED,
+        NOT_FOUND,
+        FORBIDDEN,
+        INVALID
+    }
+}
@@ -0,0 +1,17 @@
+package com.fooddelivery.userservice.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class NearbyRestaurantPageResponse {
+
+    private List<NearbyRestaurantResponse> restaurants;
+
+    // keyset of the next page, null on the last page
+    private Double nextAfterDistanceKm;
+    private Long nextAfterUserId;
+}
@@ -0,0 +1,14 @@
+package com.fooddelivery.userservice.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NearbyRestaurantResponse {
+
+    private Long userId;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+}
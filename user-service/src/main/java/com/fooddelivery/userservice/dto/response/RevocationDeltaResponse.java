@@ -0,0 +1,19 @@
+package com.fooddelivery.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RevocationDeltaResponse {
+    // pass back as "since" on the next poll
+    private long cursor;
+    private boolean hasMore;
+    private List<RevokedTokenEntry> entries;
+}
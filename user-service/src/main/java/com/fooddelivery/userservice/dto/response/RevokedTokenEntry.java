@@ -0,0 +1,15 @@
+package com.fooddelivery.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RevokedTokenEntry {
+    private String jti;
+    private long expiresAt;
+}
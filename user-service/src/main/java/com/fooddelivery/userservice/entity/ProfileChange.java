@@ -0,0 +1,40 @@
+package com.fooddelivery.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed profile write, appended in the writing transaction and tailed
+ * by every node to drop its cached copy of the profile.
+ */
+@Data
+@Entity
+@Table(
+        name = "user_profile_changes",
+        indexes = @Index(name = "idx_user_profile_changes_changed_at", columnList = "changedAt")
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProfileChange {
+
+    // monotonic, used as the cursor of the change-log poller
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // node that made the change, it has refreshed its own cache already
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -1,11 +1,15 @@
 package com.fooddelivery.userservice.entity;
 
 import com.fooddelivery.userservice.exception.BadRequestException;
+import com.fooddelivery.userservice.geo.ZoneCells;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,7 +18,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_profiles")
+@Table(
+        name = "user_profiles",
+        // single-profile reads go through the clustered primary key, which
+        // already holds every column
+        indexes = {
+                @Index(name = "idx_user_profiles_zone_cell10", columnList = "zoneCell10, role, status"),
+                @Index(name = "idx_user_profiles_zone_cell12", columnList = "zoneCell12, role, status"),
+                @Index(name = "idx_user_profiles_zone_cell14", columnList = "zoneCell14, role, status")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +35,8 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class UserProfile {
 
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
     /* ========= Identity ========= */
     @Id
     private Long userId;
@@ -53,6 +68,18 @@ public class UserProfile {
     private Double latitude;
     private Double longitude;
 
+    // (longitude, latitude) as a planar SRID 0 point, the key of the SPATIAL index
+    // idx_user_profiles_location; profiles without coordinates hold POINT(0 0)
+    // because MySQL only indexes NOT NULL geometry columns
+    @Column(nullable = false)
+    private Point location;
+
+    // delivery-zone cells of the coordinates at ZoneCells.CITY, ZONE and BLOCK,
+    // null without coordinates
+    private Long zoneCell10;
+    private Long zoneCell12;
+    private Long zoneCell14;
+
     /* ========= Profile ========= */
     private String profileImageUrl;
 
@@ -62,6 +89,9 @@ public class UserProfile {
     private Role role;
     // read-only – source of truth: Auth Service
 
+    // chain operator managing this restaurant branch, may update its location
+    private Long ownerId;
+
     /* ========= Account Status ========= */
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -75,6 +105,22 @@ public class UserProfile {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // derived columns follow the coordinates on every write
+    @PrePersist
+    @PreUpdate
+    void syncLocation() {
+        double x = longitude != null ? longitude : 0;
+        double y = latitude != null ? latitude : 0;
+        if (location == null || location.getX() != x || location.getY() != y) {
+            location = GEOMETRY_FACTORY.createPoint(new Coordinate(x, y));
+        }
+
+        boolean located = latitude != null && longitude != null;
+        zoneCell10 = located ? ZoneCells.cellId(ZoneCells.CITY, latitude, longitude) : null;
+        zoneCell12 = located ? ZoneCells.cellId(ZoneCells.ZONE, latitude, longitude) : null;
+        zoneCell14 = located ? ZoneCells.cellId(ZoneCells.BLOCK, latitude, longitude) : null;
+    }
+
     public void ensureUpdateIsAllowed() {
         if (this.status != UserStatus.ACTIVE) {
             throw new BadRequestException("Cannot update an inactive profile");
@@ -0,0 +1,43 @@
+package com.fooddelivery.userservice.geo;
+
+import java.util.Locale;
+
+/**
+ * Latitude/longitude rectangle that contains every point within a radius of a
+ * center, used to narrow a query to the spatial index before the exact
+ * distance check. Near a pole or across the antimeridian it spans all longitudes.
+ */
+public record BoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+
+    public static BoundingBox around(double latitude, double longitude, double radiusKm) {
+        double angle = radiusKm / Haversine.EARTH_RADIUS_KM;
+        double minLatitude = latitude - Math.toDegrees(angle);
+        double maxLatitude = latitude + Math.toDegrees(angle);
+
+        if (minLatitude <= -90 || maxLatitude >= 90 || angle >= Math.PI / 2) {
+            return new BoundingBox(Math.max(minLatitude, -90), -180, Math.min(maxLatitude, 90), 180);
+        }
+
+        // widest longitude offset of the circle, reached north or south of the center
+        double deltaLongitude = Math.toDegrees(Math.asin(Math.sin(angle) / Math.cos(Math.toRadians(latitude))));
+        double minLongitude = longitude - deltaLongitude;
+        double maxLongitude = longitude + deltaLongitude;
+
+        if (minLongitude < -180 || maxLongitude > 180) {
+            return new BoundingBox(minLatitude, -180, maxLatitude, 180);
+        }
+        return new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+    }
+
+    /**
+     * The box as a WKT polygon in (longitude latitude) order, like {@code user_profiles.location}.
+     */
+    public String toWkt() {
+        return String.format(Locale.ROOT, "POLYGON((%.9f %.9f, %.9f %.9f, %.9f %.9f, %.9f %.9f, %.9f %.9f))",
+                minLongitude, minLatitude,
+                maxLongitude, minLatitude,
+                maxLongitude, maxLatitude,
+                minLongitude, maxLatitude,
+                minLongitude, minLatitude);
+    }
+}
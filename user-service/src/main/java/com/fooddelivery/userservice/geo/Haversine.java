@@ -0,0 +1,52 @@
+package com.fooddelivery.userservice.geo;
+
+/**
+ * Great-circle distances on a spherical earth.
+ * <p>
+ * Ranking compares the haversine term {@code a = sin²(d / 2)} instead of the
+ * distance itself: it grows with the distance and needs no square root or
+ * arcsine, so those are only paid for the results.
+ */
+public final class Haversine {
+
+    // IUGG mean radius
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private Haversine() {
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        return toKm(term(phi1, Math.toRadians(lon1), Math.cos(phi1), phi2, Math.toRadians(lon2), Math.cos(phi2)));
+    }
+
+    /**
+     * Haversine term between two points given in radians with their latitude cosines.
+     */
+    static double term(double phi1, double lambda1, double cosPhi1, double phi2, double lambda2, double cosPhi2) {
+        double sinHalfDeltaPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDeltaLambda = Math.sin((lambda2 - lambda1) / 2);
+        return sinHalfDeltaPhi * sinHalfDeltaPhi
+                + cosPhi1 * cosPhi2 * sinHalfDeltaLambda * sinHalfDeltaLambda;
+    }
+
+    static double toKm(double term) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, term)));
+    }
+
+    /**
+     * Haversine term of a central angle in radians, {@code +Infinity} past half a circle.
+     */
+    static double termOfAngle(double radians) {
+        if (radians >= Math.PI) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double sinHalf = Math.sin(radians / 2);
+        return sinHalf * sinHalf;
+    }
+
+    static double termOfKm(double km) {
+        return termOfAngle(km / EARTH_RADIUS_KM);
+    }
+}
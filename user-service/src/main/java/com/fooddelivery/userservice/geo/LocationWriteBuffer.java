@@ -0,0 +1,273 @@
+package com.fooddelivery.userservice.geo;
+
+import com.fooddelivery.userservice.cache.ProfileChangeLog;
+import com.fooddelivery.userservice.cache.UserProfileCache;
+import com.fooddelivery.userservice.entity.UserProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for restaurant location pushes. Devices report their
+ * position every few seconds; a push only replaces the pending coordinates of
+ * its user here, and a scheduled flush writes the latest coordinates of every
+ * dirty user in JDBC batches, so all pushes of a restaurant between two
+ * flushes cost one row update.
+ * <p>
+ * A pending location is newer than the row until its flush commits: read paths
+ * overlay it through {@link #pending(Long)} and entity writes of the same
+ * profile carry it over. The flush sets the derived {@code location} and zone
+ * cell columns the way the entity does, and appends to the
+ * {@link ProfileChangeLog} in one more JDBC batch so other nodes refresh their
+ * copies. Each batch commits on its own, even when a push flushes inside a
+ * caller's transaction. Only profiles already in a near cache are read back,
+ * through a persistence context of their own: the caller's, e.g. open-in-view,
+ * may still hold the profiles from before the flush. The nearby index of this
+ * node needs no re-read, every push has updated it already.
+ * <p>
+ * Once no flush has succeeded for {@code max-staleness}, pushes flush
+ * synchronously, so a failing database is reported to the devices instead of
+ * buffering more acknowledged writes. Pending locations are flushed on
+ * shutdown unless {@code flush-on-shutdown} is off.
+ */
+@Component
+@Slf4j
+public class LocationWriteBuffer {
+
+    private static final String UPDATE_LOCATION = """
+            UPDATE user_profiles
+            SET latitude = ?, longitude = ?, location = ST_GeomFromText(?),
+                zone_cell10 = ?, zone_cell12 = ?, zone_cell14 = ?, updated_at = ?
+            WHERE user_id = ?
+            """;
+
+    private static final String SELECT_PROFILES = "select p from UserProfile p where p.userId in :userIds";
+
+    private final Map<Long, PendingLocation> pending = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfileChangeLog profileChangeLog;
+    private final UserProfileCache profileCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+    private final long maxStalenessMillis;
+    private final boolean flushOnShutdown;
+
+    private final Counter buffered;
+    private final Counter coalesced;
+    private final Counter flushed;
+    private final Counter failures;
+
+    // start of the last flush that succeeded, so nothing pending is older than it
+    private volatile long lastFlushMillis = System.currentTimeMillis();
+
+    public LocationWriteBuffer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ProfileChangeLog profileChangeLog,
+            UserProfileCache profileCache,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${user-profile.location-buffer.batch-size:500}") int batchSize,
+            @Value("${user-profile.location-buffer.max-staleness:30s}") Duration maxStaleness,
+            @Value("${user-profile.location-buffer.flush-on-shutdown:true}") boolean flushOnShutdown
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.profileChangeLog = profileChangeLog;
+        this.profileCache = profileCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.flushOnShutdown = flushOnShutdown;
+
+        this.buffered = Counter.builder("user.location.buffer.pushes")
+                .tag("result", "buffered")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("user.location.buffer.pushes")
+                .tag("result", "coalesced")
+                .description("Location pushes that replaced a pending one")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("user.location.buffer.flushed")
+                .description("Buffered locations written to the database")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.location.buffer.failures")
+                .register(meterRegistry);
+        Gauge.builder("user.location.buffer.pending", pending, Map::size)
+                .description("Location pushes not written to the database yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the latest coordinates of the user. Returns once they are buffered,
+     * unless the buffer is stale and has to be flushed first.
+     */
+    public void put(Long userId, Double latitude, Double longitude) {
+        PendingLocation previous = pending.put(userId, new PendingLocation(latitude, longitude, LocalDateTime.now()));
+        (previous == null ? buffered : coalesced).increment();
+
+        if (System.currentTimeMillis() - lastFlushMillis > maxStalenessMillis) {
+            flushIfStale();
+        }
+    }
+
+    /**
+     * The buffered coordinates of the user, if they are not in the database yet.
+     */
+    public Optional<PendingLocation> pending(Long userId) {
+        return Optional.ofNullable(pending.get(userId));
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${user-profile.location-buffer.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Flushing {} buffered restaurant locations failed: {}", pending.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes every pending location, one transaction per batch, and returns how
+     * many were written. Pushes that arrive meanwhile stay pending.
+     */
+    public synchronized int flush() {
+        long start = System.currentTimeMillis();
+        List<Map.Entry<Long, PendingLocation>> dirty = new ArrayList<>(Map.copyOf(pending).entrySet());
+
+        try {
+            for (int from = 0; from < dirty.size(); from += batchSize) {
+                write(dirty.subList(from, Math.min(from + batchSize, dirty.size())));
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            throw ex;
+        }
+
+        lastFlushMillis = start;
+        return dirty.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (!flushOnShutdown) {
+            log.warn("Dropping {} buffered restaurant locations on shutdown", pending.size());
+            return;
+        }
+
+        try {
+            log.info("Flushed {} buffered restaurant locations on shutdown", flush());
+        } catch (RuntimeException ex) {
+            log.error("Lost {} buffered restaurant locations on shutdown: {}", pending.size(), ex.getMessage());
+        }
+    }
+
+    private synchronized void flushIfStale() {
+        // another push may have flushed while this one waited for the lock
+        if (System.currentTimeMillis() - lastFlushMillis > maxStalenessMillis) {
+            flush();
+        }
+    }
+
+    private void write(List<Map.Entry<Long, PendingLocation>> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> userIds = batch.stream().map(Map.Entry::getKey).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_LOCATION, batch, batch.size(),
+                    (statement, entry) -> bind(statement, entry.getKey(), entry.getValue(), now));
+            profileChangeLog.appendAll(userIds);
+        });
+
+        // cached profiles must hold the rows before the pending values stop covering
+        // them; from the primary, a lagging replica may not have them yet
+        profileCache.refreshAll(userIds, this::readBack);
+        for (Map.Entry<Long, PendingLocation> entry : batch) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        flushed.increment(batch.size());
+    }
+
+    // not the repository: a persistence context the caller has open would return its stale copies
+    private List<UserProfile> readBack(Collection<Long> userIds) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery(SELECT_PROFILES, UserProfile.class)
+                    .setParameter("userIds", userIds)
+                    .getResultList();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Long userId, PendingLocation location, LocalDateTime now)
+            throws SQLException {
+        Double latitude = location.latitude();
+        Double longitude = location.longitude();
+        boolean located = latitude != null && longitude != null;
+
+        setDouble(statement, 1, latitude);
+        setDouble(statement, 2, longitude);
+        // same point as UserProfile.syncLocation: (longitude latitude), the origin when unknown
+        statement.setString(3, "POINT(" + plain(longitude) + " " + plain(latitude) + ")");
+        setLong(statement, 4, located ? ZoneCells.cellId(ZoneCells.CITY, latitude, longitude) : null);
+        setLong(statement, 5, located ? ZoneCells.cellId(ZoneCells.ZONE, latitude, longitude) : null);
+        setLong(statement, 6, located ? ZoneCells.cellId(ZoneCells.BLOCK, latitude, longitude) : null);
+        statement.setObject(7, now);
+        statement.setLong(8, userId);
+    }
+
+    private static void setDouble(PreparedStatement statement, int index, Double value) throws SQLException {
+        if (value != null) {
+            statement.setDouble(index, value);
+        } else {
+            statement.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value != null) {
+            statement.setLong(index, value);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    // WKT has no exponent notation
+    private static String plain(Double coordinate) {
+        return coordinate != null ? BigDecimal.valueOf(coordinate).toPlainString() : "0";
+    }
+
+    public record PendingLocation(Double latitude, Double longitude, LocalDateTime pushedAt) {
+    }
+}
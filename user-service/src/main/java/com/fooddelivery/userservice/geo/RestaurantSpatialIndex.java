@@ -0,0 +1,504 @@
+package com.fooddelivery.userservice.geo;
+
+import com.fooddelivery.userservice.cache.ProfileChangeListener;
+import com.fooddelivery.userservice.dto.projection.RestaurantLocationView;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.entity.UserStatus;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import com.fooddelivery.userservice.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of the coordinates of ACTIVE restaurants for nearest-restaurant
+ * lookups, so searches never scan {@code user_profiles}.
+ * <p>
+ * Restaurants are bucketed into a fixed latitude/longitude grid. Each cell is an
+ * immutable set of primitive arrays replaced on write, so searches read without
+ * locking. A search widens ring by ring around the query point, one more row
+ * north and south each time, each row spanning as many columns as cover the
+ * ring's distance at that latitude and never more than the radius needs. It
+ * stops once nothing left out can be closer than the current k-th result.
+ * <p>
+ * Loaded once at startup, then kept current by the profile write paths of this
+ * node and by {@link com.fooddelivery.userservice.cache.ProfileChangeLog} for
+ * the other nodes.
+ */
+@Component
+@Slf4j
+public class RestaurantSpatialIndex implements ProfileChangeListener {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    // ids per IN list when re-reading changed profiles
+    private static final int REREAD_BATCH_SIZE = 500;
+
+    private final UserProfileRepository userProfileRepository;
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    // ordered by row then column, so a stretch of a row is one range
+    private final ConcurrentNavigableMap<Long, Cell> cells = new ConcurrentSkipListMap<>();
+    // restaurant -> key of the cell holding it, changed only under the index lock
+    private final Map<Long, Long> cellKeys = new ConcurrentHashMap<>();
+
+    // restaurants written while the startup load runs, the load must not overwrite them
+    private Set<Long> writtenDuringLoad;
+
+    public RestaurantSpatialIndex(
+            UserProfileRepository userProfileRepository,
+            MeterRegistry meterRegistry,
+            @Value("${restaurants.index.cell-degrees:0.01}") double cellDegrees
+    ) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("restaurants.index.cell-degrees must be in (0, 90]");
+        }
+
+        this.userProfileRepository = userProfileRepository;
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+
+        Gauge.builder("user.restaurants.indexed", cellKeys, Map::size)
+                .description("Active restaurants in the nearest-restaurant index")
+                .register(meterRegistry);
+    }
+
+    // after the ApplicationRunners, so the load-test seed is already in place
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            writtenDuringLoad = new HashSet<>();
+        }
+
+        try {
+            long after = 0;
+            List<RestaurantLocationView> page;
+            do {
+                page = userProfileRepository.findLocationsAfter(
+                        Role.RESTAURANT, UserStatus.ACTIVE, after, PageRequest.of(0, LOAD_PAGE_SIZE));
+                if (!page.isEmpty()) {
+                    putAll(page);
+                    after = page.get(page.size() - 1).userId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        } finally {
+            synchronized (this) {
+                writtenDuringLoad = null;
+            }
+        }
+
+        log.info("Indexed {} active restaurants in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Applies the profile to the index once the current transaction commits.
+     */
+    public void updateAfterCommit(UserProfile profile) {
+        Long userId = profile.getUserId();
+        Role role = profile.getRole();
+        UserStatus status = profile.getStatus();
+        Double latitude = profile.getLatitude();
+        Double longitude = profile.getLongitude();
+
+        TransactionCallbacks.afterCommit(() -> update(userId, role, status, latitude, longitude));
+    }
+
+    /**
+     * Indexes the profile if it is an ACTIVE restaurant with coordinates, removes it otherwise.
+     */
+    public void update(Long userId, Role role, UserStatus status, Double latitude, Double longitude) {
+        boolean indexed = role == Role.RESTAURANT && status == UserStatus.ACTIVE;
+        apply(userId, indexed ? latitude : null, indexed ? longitude : null);
+    }
+
+    @Override
+    public void profilesChanged(Set<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += REREAD_BATCH_SIZE) {
+            reindex(ids.subList(from, Math.min(from + REREAD_BATCH_SIZE, ids.size())));
+        }
+    }
+
+    public int size() {
+        return cellKeys.size();
+    }
+
+    private void reindex(List<Long> userIds) {
+        Map<Long, RestaurantLocationView> current = new HashMap<>();
+        for (RestaurantLocationView view : userProfileRepository.findLocationsByUserIdIn(
+                Role.RESTAURANT, UserStatus.ACTIVE, userIds)) {
+            current.put(view.userId(), view);
+        }
+
+        for (Long userId : userIds) {
+            RestaurantLocationView view = current.get(userId);
+            apply(userId, view != null ? view.latitude() : null, view != null ? view.longitude() : null);
+        }
+    }
+
+    /**
+     * Up to {@code limit} restaurants within {@code radiusKm} of the point, nearest first.
+     */
+    public List<Match> nearest(double latitude, double longitude, int limit, double radiusKm) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        double lon = longitude >= 180 ? longitude - 360 : longitude;
+        double phi = Math.toRadians(latitude);
+        Search search = new Search(phi, Math.toRadians(lon), Math.cos(phi), limit, Haversine.termOfKm(radiusKm));
+
+        // rows past the radius cannot hold a match
+        double radiusDegrees = Math.toDegrees(radiusKm / Haversine.EARTH_RADIUS_KM);
+        int row = row(latitude);
+        int southRow = row(latitude - radiusDegrees);
+        int northRow = row(latitude + radiusDegrees);
+
+        // columns unwrapped around the point's column, so a row's scanned span is one interval
+        int column = (int) Math.floor((lon + 180) / cellDegrees);
+        int firstColumn = column - (columns - 1) / 2;
+        int lastColumn = column + columns / 2;
+        int[] west = new int[northRow - southRow + 1];
+        int[] east = new int[west.length];
+        Arrays.fill(west, column + 1);
+        Arrays.fill(east, column);
+
+        for (int ring = 0; ; ring++) {
+            double reach = Math.min(ring * cellDegrees, radiusDegrees);
+            // once the reach is the radius every row spans all it needs, only rows are left to add
+            boolean spansCovered = ring * cellDegrees >= radiusDegrees;
+
+            for (int y = Math.max(row - ring, southRow); y <= Math.min(row + ring, northRow); y++) {
+                double span = longitudeSpan(y, reach);
+                int w = span >= 180 ? firstColumn
+                        : Math.max((int) Math.floor((lon - span + 180) / cellDegrees), firstColumn);
+                int e = span >= 180 ? lastColumn
+                        : Math.min((int) Math.floor((lon + span + 180) / cellDegrees), lastColumn);
+
+                int i = y - southRow;
+                scanColumns(search, y, w, west[i] - 1);
+                scanColumns(search, y, east[i] + 1, e);
+                west[i] = Math.min(w, west[i]);
+                east[i] = Math.max(e, east[i]);
+            }
+
+            // nothing outside the scanned rows and spans is closer than this
+            double bound = Math.min(
+                    latitudeBound(latitude, row, ring, southRow, northRow),
+                    spansCovered ? Double.POSITIVE_INFINITY : Haversine.termOfAngle(Math.toRadians(reach))
+            );
+            if (bound == Double.POSITIVE_INFINITY || bound > search.threshold()) {
+                break;
+            }
+        }
+
+        return search.matches();
+    }
+
+    /**
+     * Degrees of longitude each side of the point that row {@code y} must span so
+     * that nothing left out of it is within {@code degrees} of the point, widened
+     * by the cosine of the row's poleward edge. 180 or more means the whole row.
+     */
+    private double longitudeSpan(int y, double degrees) {
+        double poleward = Math.max(Math.abs(y * cellDegrees - 90), Math.abs((y + 1) * cellDegrees - 90));
+        if (degrees >= 90 || poleward >= 90) {
+            return 180;
+        }
+
+        double sinSpan = Math.sin(Math.toRadians(degrees)) / Math.cos(Math.toRadians(poleward));
+        return sinSpan >= 1 ? 180 : Math.toDegrees(Math.asin(sinSpan));
+    }
+
+    // columns from..to of row y, unwrapped, at most one full row
+    private void scanColumns(Search search, int y, int from, int to) {
+        if (from > to) {
+            return;
+        }
+
+        int first = Math.floorMod(from, columns);
+        int last = first + (to - from);
+        if (last < columns) {
+            scanCells(search, key(y, first), key(y, last));
+        } else {
+            scanCells(search, key(y, first), key(y, columns - 1));
+            scanCells(search, key(y, 0), key(y, last - columns));
+        }
+    }
+
+    private void scanCells(Search search, long fromKey, long toKey) {
+        if (fromKey == toKey) {
+            Cell cell = cells.get(fromKey);
+            if (cell != null) {
+                scanCell(search, cell);
+            }
+            return;
+        }
+
+        for (Cell cell : cells.subMap(fromKey, true, toKey, true).values()) {
+            scanCell(search, cell);
+        }
+    }
+
+    private void scanCell(Search search, Cell cell) {
+        for (int i = 0; i < cell.ids.length; i++) {
+            double threshold = search.threshold();
+            double sinHalfDeltaPhi = Math.sin((cell.phis[i] - search.phi) / 2);
+            if (sinHalfDeltaPhi * sinHalfDeltaPhi > threshold) {
+                continue;
+            }
+
+            double term = Haversine.term(search.phi, search.lambda, search.cosPhi,
+                    cell.phis[i], cell.lambdas[i], cell.cosPhis[i]);
+            if (term <= threshold) {
+                search.offer(term, cell, i);
+            }
+        }
+    }
+
+    // haversine term of the distance from the point to the nearest row outside the scanned ones
+    private double latitudeBound(double latitude, int row, int ring, int southRow, int northRow) {
+        double south = row - ring <= southRow
+                ? Double.POSITIVE_INFINITY
+                : latitude - ((row - ring) * cellDegrees - 90);
+        double north = row + ring >= northRow
+                ? Double.POSITIVE_INFINITY
+                : ((row + ring + 1) * cellDegrees - 90) - latitude;
+
+        return Haversine.termOfAngle(Math.toRadians(Math.min(south, north)));
+    }
+
+    private synchronized void apply(Long userId, Double latitude, Double longitude) {
+        if (writtenDuringLoad != null) {
+            writtenDuringLoad.add(userId);
+        }
+
+        if (latitude == null || longitude == null) {
+            remove(userId);
+        } else {
+            put(userId, latitude, longitude);
+        }
+    }
+
+    private synchronized void putAll(List<RestaurantLocationView> page) {
+        Map<Long, List<RestaurantLocationView>> byCell = new HashMap<>();
+        for (RestaurantLocationView view : page) {
+            if (writtenDuringLoad != null && writtenDuringLoad.contains(view.userId())) {
+                continue;
+            }
+
+            long key = cellKey(view.latitude(), view.longitude());
+            Long previous = cellKeys.put(view.userId(), key);
+            if (previous != null && previous != key) {
+                cells.computeIfPresent(previous, (k, cell) -> cell.without(view.userId()));
+            }
+            byCell.computeIfAbsent(key, k -> new ArrayList<>()).add(view);
+        }
+
+        byCell.forEach((key, views) -> cells.compute(key, (k, cell) -> Cell.merge(cell, views)));
+    }
+
+    private void put(Long userId, double latitude, double longitude) {
+        long key = cellKey(latitude, longitude);
+        Long previous = cellKeys.put(userId, key);
+        if (previous != null && previous != key) {
+            cells.computeIfPresent(previous, (k, cell) -> cell.without(userId));
+        }
+
+        List<RestaurantLocationView> views = List.of(new RestaurantLocationView(userId, latitude, longitude));
+        cells.compute(key, (k, cell) -> Cell.merge(cell, views));
+    }
+
+    private void remove(Long userId) {
+        Long previous = cellKeys.remove(userId);
+        if (previous != null) {
+            cells.computeIfPresent(previous, (k, cell) -> cell.without(userId));
+        }
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return key(row(latitude), column(longitude >= 180 ? longitude - 360 : longitude));
+    }
+
+    private long key(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int row(double latitude) {
+        return Math.min(Math.max((int) Math.floor((latitude + 90) / cellDegrees), 0), rows - 1);
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    public record Match(long userId, double latitude, double longitude, double distanceKm) {
+    }
+
+    /**
+     * Restaurants of one grid cell as parallel arrays, with the trigonometry precomputed.
+     */
+    private static final class Cell {
+
+        final long[] ids;
+        final double[] latitudes;
+        final double[] longitudes;
+        final double[] phis;
+        final double[] lambdas;
+        final double[] cosPhis;
+
+        private Cell(long[] ids, double[] latitudes, double[] longitudes) {
+            this.ids = ids;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.phis = new double[ids.length];
+            this.lambdas = new double[ids.length];
+            this.cosPhis = new double[ids.length];
+
+            for (int i = 0; i < ids.length; i++) {
+                phis[i] = Math.toRadians(latitudes[i]);
+                lambdas[i] = Math.toRadians(longitudes[i]);
+                cosPhis[i] = Math.cos(phis[i]);
+            }
+        }
+
+        // copy of the cell with the views added, replacing restaurants already in it
+        static Cell merge(Cell cell, List<RestaurantLocationView> views) {
+            int existing = cell != null ? cell.ids.length : 0;
+            long[] ids = new long[existing + views.size()];
+            double[] latitudes = new double[ids.length];
+            double[] longitudes = new double[ids.length];
+
+            Map<Long, Integer> positions = new HashMap<>();
+            int size = 0;
+            for (int i = 0; i < existing; i++) {
+                ids[size] = cell.ids[i];
+                latitudes[size] = cell.latitudes[i];
+                longitudes[size] = cell.longitudes[i];
+                positions.put(ids[size], size++);
+            }
+            for (RestaurantLocationView view : views) {
+                Integer position = positions.get(view.userId());
+                int i = position != null ? position : size++;
+                ids[i] = view.userId();
+                latitudes[i] = view.latitude();
+                longitudes[i] = view.longitude();
+                positions.put(view.userId(), i);
+            }
+
+            return new Cell(
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(latitudes, size),
+                    Arrays.copyOf(longitudes, size)
+            );
+        }
+
+        // null once the last restaurant leaves, which drops the cell from the map
+        Cell without(long userId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == userId) {
+                    if (ids.length == 1) {
+                        return null;
+                    }
+                    return new Cell(removeAt(ids, i), removeAt(latitudes, i), removeAt(longitudes, i));
+                }
+            }
+            return this;
+        }
+
+        private static long[] removeAt(long[] values, int index) {
+            long[] copy = new long[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            System.arraycopy(values, index + 1, copy, index, copy.length - index);
+            return copy;
+        }
+
+        private static double[] removeAt(double[] values, int index) {
+            double[] copy = new double[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            System.arraycopy(values, index + 1, copy, index, copy.length - index);
+            return copy;
+        }
+    }
+
+    /**
+     * The k best candidates of one search, kept sorted by haversine term.
+     */
+    private static final class Search {
+
+        final double phi;
+        final double lambda;
+        final double cosPhi;
+        final double radiusTerm;
+
+        final double[] terms;
+        final long[] ids;
+        final double[] latitudes;
+        final double[] longitudes;
+        int size;
+
+        Search(double phi, double lambda, double cosPhi, int limit, double radiusTerm) {
+            this.phi = phi;
+            this.lambda = lambda;
+            this.cosPhi = cosPhi;
+            this.radiusTerm = radiusTerm;
+            this.terms = new double[limit];
+            this.ids = new long[limit];
+            this.latitudes = new double[limit];
+            this.longitudes = new double[limit];
+        }
+
+        // a candidate must be strictly closer than this once k are found
+        double threshold() {
+            return size == terms.length ? terms[size - 1] : radiusTerm;
+        }
+
+        void offer(double term, Cell cell, int index) {
+            if (size == terms.length && term >= terms[size - 1]) {
+                return;
+            }
+
+            int i = size == terms.length ? size - 1 : size++;
+            while (i > 0 && terms[i - 1] > term) {
+                terms[i] = terms[i - 1];
+                ids[i] = ids[i - 1];
+                latitudes[i] = latitudes[i - 1];
+                longitudes[i] = longitudes[i - 1];
+                i--;
+            }
+
+            terms[i] = term;
+            ids[i] = cell.ids[index];
+            latitudes[i] = cell.latitudes[index];
+            longitudes[i] = cell.longitudes[index];
+        }
+
+        List<Match> matches() {
+            List<Match> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                matches.add(new Match(ids[i], latitudes[i], longitudes[i], Haversine.toKm(terms[i])));
+            }
+            return matches;
+        }
+    }
+}
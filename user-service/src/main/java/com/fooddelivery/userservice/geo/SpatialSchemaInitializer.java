@@ -0,0 +1,99 @@
+package com.fooddelivery.userservice.geo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema for restaurant location search that Hibernate cannot express: the
+ * SPATIAL index on {@code user_profiles.location} and, on MySQL, the
+ * {@code POINT NOT NULL SRID 0} column type the optimizer needs to use it.
+ * On H2 it also registers the H2GIS functions when they are on the classpath.
+ * <p>
+ * Every step checks the current schema first, so it runs on each startup after
+ * Hibernate has created or updated the tables.
+ */
+@Component
+@Slf4j
+public class SpatialSchemaInitializer {
+
+    static final String LOCATION_INDEX = "idx_user_profiles_location";
+
+    private static final String H2GIS_FUNCTIONS = "org.h2gis.functions.factory.H2GISFunctions";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // the entity manager factory is only a dependency: Hibernate's DDL must have run first
+    public SpatialSchemaInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+
+        switch (database) {
+            case "MySQL" -> initializeMySql();
+            case "H2" -> initializeH2();
+            default -> log.warn("No spatial index for {}, restaurant location queries will scan", database);
+        }
+    }
+
+    private void initializeMySql() {
+        List<Map<String, Object>> columns = jdbcTemplate.queryForList("""
+                SELECT DATA_TYPE, IS_NULLABLE, SRS_ID
+                FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_profiles' AND COLUMN_NAME = 'location'
+                """);
+
+        if (columns.isEmpty()) {
+            // Hibernate cannot add a NOT NULL geometry column to a table that has rows
+            jdbcTemplate.execute("ALTER TABLE user_profiles ADD COLUMN location POINT SRID 0 NULL");
+        }
+
+        Map<String, Object> column = columns.isEmpty() ? Map.of() : columns.get(0);
+        boolean indexable = "point".equalsIgnoreCase(String.valueOf(column.get("DATA_TYPE")))
+                && "NO".equals(column.get("IS_NULLABLE"))
+                && column.get("SRS_ID") != null && ((Number) column.get("SRS_ID")).intValue() == 0;
+
+        if (!indexable) {
+            int backfilled = jdbcTemplate.update("""
+                    UPDATE user_profiles
+                    SET location = ST_SRID(POINT(COALESCE(longitude, 0), COALESCE(latitude, 0)), 0)
+                    WHERE location IS NULL
+                    """);
+            jdbcTemplate.execute("ALTER TABLE user_profiles MODIFY location POINT NOT NULL SRID 0");
+            log.info("Converted user_profiles.location to POINT NOT NULL SRID 0, backfilled {} rows", backfilled);
+        }
+
+        Integer indexes = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM INFORMATION_SCHEMA.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_profiles' AND INDEX_NAME = ?
+                """, Integer.class, LOCATION_INDEX);
+
+        if (indexes == null || indexes == 0) {
+            jdbcTemplate.execute("CREATE SPATIAL INDEX " + LOCATION_INDEX + " ON user_profiles (location)");
+            log.info("Created spatial index {}", LOCATION_INDEX);
+        }
+    }
+
+    private void initializeH2() {
+        if (ClassUtils.isPresent(H2GIS_FUNCTIONS, getClass().getClassLoader())) {
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS H2GIS_SPATIAL FOR \"" + H2GIS_FUNCTIONS + ".load\"");
+            jdbcTemplate.execute("CALL H2GIS_SPATIAL()");
+        } else {
+            log.warn("H2GIS is not on the classpath, restaurant location queries are unavailable");
+        }
+
+        jdbcTemplate.execute("CREATE SPATIAL INDEX IF NOT EXISTS " + LOCATION_INDEX + " ON user_profiles (location)");
+    }
+}
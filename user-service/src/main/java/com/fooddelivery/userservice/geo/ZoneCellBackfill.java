@@ -0,0 +1,71 @@
+package com.fooddelivery.userservice.geo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assigns delivery-zone cells to profiles that have coordinates but no cells:
+ * rows written before the cell columns existed, or by SQL outside the entity.
+ * Cells are computed by {@link ZoneCells} here rather than in SQL, so they match
+ * the ones the entity assigns exactly.
+ */
+@Component
+@Slf4j
+public class ZoneCellBackfill {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ZoneCellBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // after the ApplicationRunners, so the load-test seed is covered
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        int total = 0;
+
+        while (true) {
+            List<Object[]> batch = new ArrayList<>();
+            jdbcTemplate.query("""
+                    SELECT user_id, latitude, longitude
+                    FROM user_profiles
+                    WHERE zone_cell10 IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL
+                    LIMIT ?
+                    """, rs -> {
+                double latitude = rs.getDouble("latitude");
+                double longitude = rs.getDouble("longitude");
+                batch.add(new Object[]{
+                        ZoneCells.cellId(ZoneCells.CITY, latitude, longitude),
+                        ZoneCells.cellId(ZoneCells.ZONE, latitude, longitude),
+                        ZoneCells.cellId(ZoneCells.BLOCK, latitude, longitude),
+                        rs.getLong("user_id")
+                });
+            }, BATCH_SIZE);
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            // a concurrent entity write has already set the cells, keep its values
+            jdbcTemplate.batchUpdate("""
+                    UPDATE user_profiles
+                    SET zone_cell10 = ?, zone_cell12 = ?, zone_cell14 = ?
+                    WHERE user_id = ? AND zone_cell10 IS NULL
+                    """, batch);
+            total += batch.size();
+        }
+
+        if (total > 0) {
+            log.info("Assigned delivery-zone cells to {} profiles in {} ms", total, System.currentTimeMillis() - start);
+        }
+    }
+}
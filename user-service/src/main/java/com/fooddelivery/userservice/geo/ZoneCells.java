@@ -0,0 +1,114 @@
+package com.fooddelivery.userservice.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical grid of delivery-zone cells.
+ * <p>
+ * At resolution {@code r} the globe is cut into square cells of
+ * {@code 180 / 2^r} degrees: {@code 2^r} rows from the south pole and
+ * {@code 2^(r+1)} columns from the antimeridian. Each cell splits into four
+ * at the next resolution, so a parent is found by shifting row and column.
+ * <p>
+ * An id packs {@code resolution << 58 | row << 29 | column}, so ids of
+ * different resolutions never collide.
+ * <p>
+ * Being square in degrees, cells narrow east-west with the cosine of the
+ * latitude; {@link #withRing} widens each row of a ring to make up for it.
+ */
+public final class ZoneCells {
+
+    /** ~20 km cells, a city district */
+    public static final int CITY = 10;
+    /** ~5 km cells, a delivery zone */
+    public static final int ZONE = 12;
+    /** ~1.2 km cells, a neighborhood */
+    public static final int BLOCK = 14;
+
+    public static final int MAX_RESOLUTION = 20;
+
+    // widening stops here, above ~83 degrees rings cover less east-west
+    private static final int MAX_RING_WIDENING = 8;
+
+    private static final int RESOLUTION_SHIFT = 58;
+    private static final int ROW_SHIFT = 29;
+    private static final long COORDINATE_MASK = (1L << ROW_SHIFT) - 1;
+
+    private ZoneCells() {
+    }
+
+    public static long cellId(int resolution, double latitude, double longitude) {
+        checkResolution(resolution);
+        double size = cellDegrees(resolution);
+        int rows = 1 << resolution;
+        int columns = rows << 1;
+
+        int row = Math.min(Math.max((int) Math.floor((latitude + 90) / size), 0), rows - 1);
+        int column = Math.floorMod((int) Math.floor((longitude + 180) / size), columns);
+
+        return id(resolution, row, column);
+    }
+
+    /**
+     * The cell and the cells around it up to {@code ring} cell heights away:
+     * {@code ring} rows north and south, and in each row as many columns as
+     * span that distance at the row's poleward edge. Columns wrap at the
+     * antimeridian, rows stop at the poles.
+     */
+    public static List<Long> withRing(long cellId, int ring) {
+        int resolution = resolution(cellId);
+        double size = cellDegrees(resolution);
+        int rows = 1 << resolution;
+        int columns = rows << 1;
+        int row = row(cellId);
+        int column = column(cellId);
+
+        List<Long> cells = new ArrayList<>();
+        for (int y = Math.max(row - ring, 0); y <= Math.min(row + ring, rows - 1); y++) {
+            double polewardLatitude = Math.max(Math.abs(y * size - 90), Math.abs((y + 1) * size - 90));
+            double widening = Math.min(1 / Math.cos(Math.toRadians(polewardLatitude)), MAX_RING_WIDENING);
+            // the small slack keeps float noise from adding a column at the equator
+            int span = Math.min((int) Math.ceil(ring * widening - 1e-9), (columns - 1) / 2);
+
+            for (int dx = -span; dx <= span; dx++) {
+                cells.add(id(resolution, y, Math.floorMod(column + dx, columns)));
+            }
+        }
+        return cells;
+    }
+
+    public static long parent(long cellId, int resolution) {
+        int depth = resolution(cellId) - resolution;
+        if (depth < 0) {
+            throw new IllegalArgumentException("Parent resolution " + resolution + " is finer than the cell");
+        }
+        return id(resolution, row(cellId) >> depth, column(cellId) >> depth);
+    }
+
+    public static int resolution(long cellId) {
+        return (int) (cellId >>> RESOLUTION_SHIFT);
+    }
+
+    public static double cellDegrees(int resolution) {
+        return 180.0 / (1 << resolution);
+    }
+
+    private static int row(long cellId) {
+        return (int) ((cellId >>> ROW_SHIFT) & COORDINATE_MASK);
+    }
+
+    private static int column(long cellId) {
+        return (int) (cellId & COORDINATE_MASK);
+    }
+
+    private static long id(int resolution, int row, int column) {
+        return (long) resolution << RESOLUTION_SHIFT | (long) row << ROW_SHIFT | column;
+    }
+
+    private static void checkResolution(int resolution) {
+        if (resolution < 0 || resolution > MAX_RESOLUTION) {
+            throw new IllegalArgumentException("Resolution must be between 0 and " + MAX_RESOLUTION);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fooddelivery.userservice.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills an empty H2 database with one ACTIVE profile per seeded auth-service user
+ * (same ids, every 10th a RESTAURANT) for the load harness. Every 100th profile
+ * operates a chain owning the nine restaurants after it. Rows are generated
+ * inside the database with {@code SYSTEM_RANGE}.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private static final long CHUNK_SIZE = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long users;
+
+    public LoadTestDataSeeder(
+            JdbcTemplate jdbcTemplate,
+            @Value("${loadtest.seed.users}") long users
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_profiles", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Load test database already has {} profiles, skipping seed", existing);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+
+        // coordinates spread over ~40 km around Cairo
+        for (long from = 1; from <= users; from += CHUNK_SIZE) {
+            long to = Math.min(from + CHUNK_SIZE - 1, users);
+            jdbcTemplate.update("""
+                    INSERT INTO user_profiles (user_id, full_name, phone, email, date_of_birth, gender,
+                                               country, city, area, street, building_number, apartment_number,
+                                               latitude, longitude, location, role, owner_id, status, created_at, updated_at)
+                    SELECT X, CONCAT('Load User ', X), CONCAT('01', LPAD(CAST(X AS VARCHAR), 9, '0')),
+                           CONCAT('user', X, '@load.test'), DATE '1990-01-01',
+                           CASE WHEN MOD(X, 2) = 0 THEN 'MALE' ELSE 'FEMALE' END,
+                           'Egypt', 'Cairo', CONCAT('Area ', MOD(X, 50)), CONCAT('Street ', MOD(X, 500)),
+                           CAST(MOD(X, 100) AS VARCHAR), CAST(MOD(X, 20) AS VARCHAR),
+                           LATITUDE, LONGITUDE, CAST(CONCAT('POINT(', LONGITUDE, ' ', LATITUDE, ')') AS GEOMETRY),
+                           CASE WHEN MOD(X, 10) = 0 THEN 'RESTAURANT' ELSE 'CUSTOMER' END,
+                           CASE WHEN MOD(X, 10) = 0 AND X > 100 AND MOD(X, 100) <> 0 THEN X - MOD(X, 100) END,
+                           'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                    FROM (SELECT X,
+                                 29.85 + MOD(X * 7919, 10007) / 25000.0 AS LATITUDE,
+                                 31.05 + MOD(X * 104729, 10009) / 25000.0 AS LONGITUDE
+                          FROM SYSTEM_RANGE(?, ?))
+                    """, from, to);
+        }
+
+        log.info("Seeded {} profiles in {} ms", users, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,29 @@
+package com.fooddelivery.userservice.repository;
+
+import com.fooddelivery.userservice.entity.ProfileChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// declared queries run outside a read-only transaction, so they are served by the primary
+@Repository
+public interface ProfileChangeRepository extends JpaRepository<ProfileChange, Long> {
+
+    List<ProfileChange> findByIdGreaterThanOrderByIdAsc(Long cursor, Pageable pageable);
+
+    List<ProfileChange> findByIdIn(Collection<Long> ids);
+
+    @Query("select coalesce(max(c.id), 0) from ProfileChange c")
+    long findMaxId();
+
+    @Modifying
+    @Query("delete from ProfileChange c where c.changedAt < :before")
+    int deleteChangedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,180 @@
 package com.fooddelivery.userservice.repository;
 
+import com.fooddelivery.userservice.dto.projection.RestaurantDistanceView;
+import com.fooddelivery.userservice.dto.projection.RestaurantLocationView;
+import com.fooddelivery.userservice.dto.projection.RestaurantOwnershipView;
+import com.fooddelivery.userservice.dto.projection.UserProfileAddressView;
+import com.fooddelivery.userservice.dto.projection.UserProfilePictureView;
+import com.fooddelivery.userservice.entity.Role;
 import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.entity.UserStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
+
+    // projections are not managed: no persistence-context copy, no dirty checking
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.fooddelivery.userservice.dto.projection.UserProfileAddressView(
+                p.country, p.city, p.area, p.street, p.buildingNumber, p.apartmentNumber,
+                p.latitude, p.longitude)
+            from UserProfile p
+            where p.userId = :userId
+            """)
+    Optional<UserProfileAddressView> findAddressByUserId(@Param("userId") Long userId);
+
+    // one column off the clustered primary key, no entity or persistence-context copy
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.fooddelivery.userservice.dto.projection.UserProfilePictureView(p.profileImageUrl)
+            from UserProfile p
+            where p.userId = :userId
+            """)
+    Optional<UserProfilePictureView> findPictureByUserId(@Param("userId") Long userId);
+
+    // keyset page for the spatial index load at startup
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.fooddelivery.userservice.dto.projection.RestaurantLocationView(
+                p.userId, p.latitude, p.longitude)
+            from UserProfile p
+            where p.role = :role and p.status = :status
+              and p.latitude is not null and p.longitude is not null
+              and p.userId > :after
+            order by p.userId
+            """)
+    List<RestaurantLocationView> findLocationsAfter(
+            @Param("role") Role role,
+            @Param("status") UserStatus status,
+            @Param("after") Long after,
+            Pageable pageable
+    );
+
+    // not read-only: re-reads profiles another node just changed, so it must hit the primary
+    @Query("""
+            select new com.fooddelivery.userservice.dto.projection.RestaurantLocationView(
+                p.userId, p.latitude, p.longitude)
+            from UserProfile p
+            where p.role = :role and p.status = :status
+              and p.latitude is not null and p.longitude is not null
+              and p.userId in :userIds
+            """)
+    List<RestaurantLocationView> findLocationsByUserIdIn(
+            @Param("role") Role role,
+            @Param("status") UserStatus status,
+            @Param("userIds") Collection<Long> userIds
+    );
+
+    // not read-only: refreshes cached profiles another node just changed, so it must hit the primary
+    @Query("select p from UserProfile p where p.userId in :userIds")
+    List<UserProfile> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // not read-only: authorizes location writes, so it must see the primary's owners
+    @Query("""
+            select new com.fooddelivery.userservice.dto.projection.RestaurantOwnershipView(
+                p.userId, p.role, p.status, p.ownerId)
+            from UserProfile p
+            where p.userId in :userIds
+            """)
+    List<RestaurantOwnershipView> findOwnershipByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // the box narrows the scan through idx_user_profiles_location, the haversine
+    // distance then drops its corners; keyset on (distance, userId) for paging,
+    // with the distance cast to DOUBLE so the cursor a client sends back compares
+    // equal to its own row. Native so the spatial predicate reaches MySQL bare,
+    // as its optimizer needs
+    @Transactional(readOnly = true)
+    @Query(nativeQuery = true, value = """
+            SELECT user_id AS userId, latitude, longitude, distance_km AS distanceKm
+            FROM (
+                SELECT user_id, latitude, longitude,
+                       CAST(2 * 6371.0088 * ASIN(SQRT(LEAST(1,
+                           POWER(SIN(RADIANS(latitude - :latitude) / 2), 2)
+                           + COS(RADIANS(:latitude)) * COS(RADIANS(latitude))
+                             * POWER(SIN(RADIANS(longitude - :longitude) / 2), 2)))) AS DOUBLE) AS distance_km
+                FROM user_profiles
+                WHERE ST_Intersects(location, ST_GeomFromText(:box))
+                  AND role = 'RESTAURANT' AND status = 'ACTIVE'
+                  AND latitude IS NOT NULL AND longitude IS NOT NULL
+            ) nearby
+            WHERE distance_km <= :radiusKm
+              AND (distance_km > :afterDistanceKm OR (distance_km = :afterDistanceKm AND user_id > :afterUserId))
+            ORDER BY distance_km, user_id
+            LIMIT :limit
+            """)
+    List<RestaurantDistanceView> findRestaurantsWithin(
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("radiusKm") double radiusKm,
+            @Param("box") String box,
+            @Param("afterDistanceKm") double afterDistanceKm,
+            @Param("afterUserId") long afterUserId,
+            @Param("limit") int limit
+    );
+
+    // delivery-zone lookups, equality on idx_user_profiles_zone_cell<resolution>.
+    // One method per resolution, as the query must name its cell column: picked
+    // by CASE or OR, the column would no longer be matched against its index.
+    // The rest of the query is shared. Nearest first by equirectangular
+    // distance, exact enough within a few cells, with the longitude difference
+    // taken across the antimeridian
+    String ZONE_CELL_LOCATIONS = """
+            select new com.fooddelivery.userservice.dto.projection.RestaurantLocationView(
+                p.userId, p.latitude, p.longitude)
+            from UserProfile p
+            where p.""";
+
+    String IN_CELLS_NEAREST_FIRST = """
+             in :cells and p.role = :role and p.status = :status
+            order by (p.latitude - :latitude) * (p.latitude - :latitude)
+                + (least(abs(p.longitude - :longitude), 360 - abs(p.longitude - :longitude)) * :cosLatitude)
+                * (least(abs(p.longitude - :longitude), 360 - abs(p.longitude - :longitude)) * :cosLatitude),
+                p.userId
+            """;
+
+    @Transactional(readOnly = true)
+    @Query(ZONE_CELL_LOCATIONS + "zoneCell10" + IN_CELLS_NEAREST_FIRST)
+    List<RestaurantLocationView> findLocationsInZoneCell10(
+            @Param("cells") Collection<Long> cells,
+            @Param("role") Role role,
+            @Param("status") UserStatus status,
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("cosLatitude") double cosLatitude,
+            Pageable pageable
+    );
+
+    @Transactional(readOnly = true)
+    @Query(ZONE_CELL_LOCATIONS + "zoneCell12" + IN_CELLS_NEAREST_FIRST)
+    List<RestaurantLocationView> findLocationsInZoneCell12(
+            @Param("cells") Collection<Long> cells,
+            @Param("role") Role role,
+            @Param("status") UserStatus status,
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("cosLatitude") double cosLatitude,
+            Pageable pageable
+    );
+
+    @Transactional(readOnly = true)
+    @Query(ZONE_CELL_LOCATIONS + "zoneCell14" + IN_CELLS_NEAREST_FIRST)
+    List<RestaurantLocationView> findLocationsInZoneCell14(
+            @Param("cells") Collection<Long> cells,
+            @Param("role") Role role,
+            @Param("status") UserStatus status,
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("cosLatitude") double cosLatitude,
+            Pageable pageable
+    );
 }
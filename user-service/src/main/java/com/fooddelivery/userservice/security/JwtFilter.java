@@ -1,5 +1,6 @@
 package com.fooddelivery.userservice.security;
 
+import com.fooddelivery.userservice.diagnostics.JwtVerificationEvent;
 import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -19,7 +20,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevocationSync revocationSync;
 
     @Override
     protected void doFilterInternal(
@@ -37,18 +39,36 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        // Let Spring Security handle JWT exceptions
-        jwtUtil.validateToken(token);
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        VerifiedTokenCache.VerifiedToken verified = null;
+        boolean revoked = false;
+        try {
+            // Let Spring Security handle JWT exceptions
+            // Signature is verified once per token, later requests hit the cache
+            verified = verifiedTokenCache.get(token);
+            revoked = revocationSync.isRevoked(verified.tokenId());
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = verified == null ? JwtVerificationEvent.INVALID
+                        : revoked ? JwtVerificationEvent.REVOKED
+                        : JwtVerificationEvent.AUTHENTICATED;
+                event.userId = verified == null ? 0 : verified.principal().getUserId();
+                event.commit();
+            }
+        }
 
-        Long userId = jwtUtil.extractUserId(token);
-        String email = jwtUtil.extractEmail(token);
-        String role = jwtUtil.extractRole(token);
+        // Revoked on logout: stay anonymous, the entry point answers 401
+        if (revoked) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        AuthenticatedUser principal =
-                new AuthenticatedUser(userId, email, role);
+        AuthenticatedUser principal = verified.principal();
 
         List<SimpleGrantedAuthority> authorities =
-                List.of(new SimpleGrantedAuthority("ROLE_" + role));
+                List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole()));
 
         UsernamePasswordAuthenticationToken authentication =
                 new UsernamePasswordAuthenticationToken(
@@ -1,8 +1,10 @@
 package com.fooddelivery.userservice.security;
 
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
 import com.fooddelivery.userservice.exception.JwtAuthenticationException;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -12,14 +14,29 @@ public class JwtUtil {
     @Value("${spring.security.jwt.secret}")
     private String secretKey;
 
+    // JwtParser is immutable and thread-safe, build it once
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey.getBytes())
+                .build();
+    }
+
     /* ========= Validation ========= */
     public void validateToken(String token) {
+        parseVerifiedClaims(token);
+    }
+
+    /**
+     * Verifies the signature and expiry of the token exactly once
+     * and maps jjwt failures to {@link JwtAuthenticationException}.
+     */
+    public Claims parseVerifiedClaims(String token) {
 
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey.getBytes())
-                    .build()
-                    .parseClaimsJws(token);
+            return extractAllClaims(token);
 
         } catch (ExpiredJwtException ex) {
             throw new JwtAuthenticationException("JWT token expired");
@@ -37,43 +54,37 @@ public class JwtUtil {
 
     /* ========= Claims ========= */
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey.getBytes())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-
-        Long userId = claims.get("userId", Long.class);
-        if (userId == null) {
-            throw new JwtAuthenticationException("JWT does not contain userId");
-        }
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        return new AuthenticatedUser(
+                requireClaim(claims, "userId", Long.class),
+                requireClaim(claims, "email", String.class),
+                requireClaim(claims, "role", String.class)
+        );
+    }
 
-        return userId;
+    public Long extractUserId(String token) {
+        return requireClaim(extractAllClaims(token), "userId", Long.class);
     }
 
     public String extractEmail(String token) {
-        Claims claims = extractAllClaims(token);
-
-        String email = claims.get("email", String.class);
-        if (email == null) {
-            throw new JwtAuthenticationException("JWT does not contain email");
-        }
-
-        return email;
+        return requireClaim(extractAllClaims(token), "email", String.class);
     }
 
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
+        return requireClaim(extractAllClaims(token), "role", String.class);
+    }
 
-        String role = claims.get("role", String.class);
-        if (role == null) {
-            throw new JwtAuthenticationException("JWT does not contain role");
+    private <T> T requireClaim(Claims claims, String name, Class<T> type) {
+        T value = claims.get(name, type);
+        if (value == null) {
+            throw new JwtAuthenticationException("JWT does not contain " + name);
         }
 
-        return role;
+        return value;
     }
 }
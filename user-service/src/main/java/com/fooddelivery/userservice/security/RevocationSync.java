@@ -0,0 +1,114 @@
+package com.fooddelivery.userservice.security;
+
+import com.fooddelivery.userservice.dto.response.RevocationDeltaResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Keeps {@link RevokedTokenSet} in step with auth-service by polling its
+ * revocation delta feed. Only entries after the last cursor are transferred.
+ * The feed holds the cursor below ids that have not committed yet and repeats
+ * the entries above them, which merge into the set like new ones.
+ * <p>
+ * If auth-service is unreachable the last known set stays in use and the
+ * next poll resumes from the same cursor.
+ */
+@Component
+@Slf4j
+public class RevocationSync {
+
+    // bounds one poll if auth-service has a large backlog
+    private static final int MAX_PAGES_PER_POLL = 50;
+
+    private final RestClient restClient;
+    private final String internalToken;
+    private final int pageSize;
+    private final RevokedTokenSet revokedTokens = new RevokedTokenSet();
+    private final Counter failures;
+
+    private volatile long cursor;
+    private volatile long lastSyncMillis;
+
+    public RevocationSync(
+            RestClient.Builder restClientBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${auth-service.base-url}") String baseUrl,
+            @Value("${auth-service.internal-token}") String internalToken,
+            @Value("${auth-service.revocation.page-size:1000}") int pageSize
+    ) {
+        if (internalToken.isBlank()) {
+            throw new IllegalArgumentException("auth-service.internal-token must not be blank");
+        }
+
+        this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+        this.internalToken = internalToken;
+        this.pageSize = pageSize;
+
+        Gauge.builder("user.revoked.tokens", revokedTokens, RevokedTokenSet::size)
+                .description("Revoked access tokens replicated from auth-service")
+                .register(meterRegistry);
+        Gauge.builder("user.revocation.sync.age", this,
+                        sync -> sync.lastSyncMillis == 0 ? Double.NaN
+                                : (System.currentTimeMillis() - sync.lastSyncMillis) / 1000.0)
+                .description("Seconds since the last successful revocation sync")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.revocation.sync.failures")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        return revokedTokens.contains(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${auth-service.revocation.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            boolean changed = false;
+            for (int page = 0; page < MAX_PAGES_PER_POLL; page++) {
+                RevocationDeltaResponse delta = fetch(cursor);
+                if (delta == null) {
+                    break;
+                }
+                if (delta.getEntries() != null && !delta.getEntries().isEmpty()) {
+                    revokedTokens.addAll(delta.getEntries());
+                    changed = true;
+                }
+                cursor = Math.max(cursor, delta.getCursor());
+                if (!delta.isHasMore()) {
+                    break;
+                }
+            }
+            if (!changed) {
+                revokedTokens.evictExpired();
+            }
+            lastSyncMillis = System.currentTimeMillis();
+
+        } catch (RestClientException ex) {
+            failures.increment();
+            log.warn("Revocation sync failed at cursor {}: {}", cursor, ex.getMessage());
+        }
+    }
+
+    long cursor() {
+        return cursor;
+    }
+
+    private RevocationDeltaResponse fetch(long since) {
+        return restClient.get()
+                .uri(uri -> uri.path("/internal/revocations")
+                        .queryParam("since", since)
+                        .queryParam("limit", pageSize)
+                        .build())
+                .header("X-Internal-Token", internalToken)
+                .retrieve()
+                .body(RevocationDeltaResponse.class);
+    }
+}
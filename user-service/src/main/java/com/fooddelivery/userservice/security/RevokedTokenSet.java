@@ -0,0 +1,147 @@
+package com.fooddelivery.userservice.security;
+
+import com.fooddelivery.userservice.dto.response.RevokedTokenEntry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Local replica of the access tokens revoked in auth-service.
+ * <p>
+ * Token ids are UUIDs, so they are stored as two {@code long}s plus the token
+ * expiry in an open-addressed table (24 bytes per slot, no per-entry objects).
+ * The table is immutable and swapped as a whole on every sync, so lookups on
+ * the request path are a volatile read and a short probe without locking.
+ * Membership is exact: a Bloom filter would reject valid tokens on false positives.
+ */
+public class RevokedTokenSet {
+
+    private volatile Table table = Table.EMPTY;
+
+    public boolean contains(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        return table.contains(jti, System.currentTimeMillis());
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Merges the entries into the set and drops tokens that have expired since
+     * the last sync. Called by a single poller, readers never block.
+     */
+    public synchronized void addAll(Collection<RevokedTokenEntry> entries) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> live = table.liveEntries(now);
+        for (RevokedTokenEntry entry : entries) {
+            if (entry.getJti() != null && entry.getExpiresAt() > now) {
+                live.merge(entry.getJti(), entry.getExpiresAt(), Math::max);
+            }
+        }
+        table = Table.of(live);
+    }
+
+    /** Drops expired tokens without waiting for new revocations. */
+    public synchronized void evictExpired() {
+        table = Table.of(table.liveEntries(System.currentTimeMillis()));
+    }
+
+    private static final class Table {
+
+        static final Table EMPTY = of(Map.of());
+
+        final long[] mostSigBits;
+        final long[] leastSigBits;
+        // 0 marks an empty slot
+        final long[] expiresAt;
+        // ids that are not UUIDs, not issued by auth-service today
+        final Map<String, Long> other;
+        final int mask;
+        final int size;
+
+        private Table(int capacity, Map<String, Long> other, int size) {
+            this.mostSigBits = new long[capacity];
+            this.leastSigBits = new long[capacity];
+            this.expiresAt = new long[capacity];
+            this.other = other;
+            this.mask = capacity - 1;
+            this.size = size;
+        }
+
+        static Table of(Map<String, Long> entries) {
+            // load factor <= 0.5 keeps probe sequences short
+            int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 4 - 1);
+            Map<String, Long> other = new HashMap<>();
+            Table table = new Table(Math.max(capacity, 2), other, entries.size());
+
+            entries.forEach((jti, expiry) -> {
+                UUID id = parse(jti);
+                if (id == null) {
+                    other.put(jti, expiry);
+                    return;
+                }
+                int slot = table.slot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                while (table.expiresAt[slot] != 0) {
+                    slot = (slot + 1) & table.mask;
+                }
+                table.mostSigBits[slot] = id.getMostSignificantBits();
+                table.leastSigBits[slot] = id.getLeastSignificantBits();
+                table.expiresAt[slot] = expiry;
+            });
+            return table;
+        }
+
+        boolean contains(String jti, long now) {
+            UUID id = parse(jti);
+            if (id == null) {
+                Long expiry = other.get(jti);
+                return expiry != null && expiry > now;
+            }
+
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            for (int slot = slot(msb, lsb); expiresAt[slot] != 0; slot = (slot + 1) & mask) {
+                if (mostSigBits[slot] == msb && leastSigBits[slot] == lsb) {
+                    return expiresAt[slot] > now;
+                }
+            }
+            return false;
+        }
+
+        Map<String, Long> liveEntries(long now) {
+            Map<String, Long> live = new HashMap<>();
+            for (int slot = 0; slot < expiresAt.length; slot++) {
+                if (expiresAt[slot] > now) {
+                    live.put(new UUID(mostSigBits[slot], leastSigBits[slot]).toString(), expiresAt[slot]);
+                }
+            }
+            other.forEach((jti, expiry) -> {
+                if (expiry > now) {
+                    live.put(jti, expiry);
+                }
+            });
+            return live;
+        }
+
+        private int slot(long msb, long lsb) {
+            long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private static UUID parse(String jti) {
+            if (jti.length() != 36) {
+                return null;
+            }
+            try {
+                return UUID.fromString(jti);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    }
+}
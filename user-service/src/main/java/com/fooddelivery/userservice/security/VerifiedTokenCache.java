@@ -0,0 +1,111 @@
+package com.fooddelivery.userservice.security;
+
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified principals keyed by a SHA-256 digest of the raw token.
+ * Each entry expires at the token's own {@code exp}, so a token is verified once
+ * and never served after it expires.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final long maxTtlMillis;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${spring.security.jwt.cache.max-size:100000}") long maxSize,
+            @Value("${spring.security.jwt.cache.max-ttl:3600000}") long maxTtlMillis
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.maxTtlMillis = maxTtlMillis;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified.tokens");
+    }
+
+    /**
+     * Returns the principal for the token, verifying it only on a cache miss.
+     * Invalid tokens throw and are never cached.
+     */
+    public AuthenticatedUser getPrincipal(String token) {
+        return get(token).principal();
+    }
+
+    VerifiedToken get(String token) {
+        return cache.get(digest(token), key -> verify(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims = jwtUtil.parseVerifiedClaims(token);
+        AuthenticatedUser principal = jwtUtil.toAuthenticatedUser(claims);
+
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null
+                ? expiration.getTime()
+                : System.currentTimeMillis() + maxTtlMillis;
+
+        return new VerifiedToken(principal, claims.getId(), expiresAt);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    record VerifiedToken(AuthenticatedUser principal, String tokenId, long expiresAtMillis) {
+    }
+
+    private class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = Math.min(
+                    value.expiresAtMillis() - System.currentTimeMillis(),
+                    maxTtlMillis
+            );
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.fooddelivery.userservice.service;
+
+import com.fooddelivery.userservice.dto.response.NearbyRestaurantPageResponse;
+import com.fooddelivery.userservice.dto.response.NearbyRestaurantResponse;
+
+import java.util.List;
+
+public interface RestaurantSearchService {
+
+    /* ===== Nearest Restaurants ===== */
+    List<NearbyRestaurantResponse> findNearby(Double latitude, Double longitude, Integer limit, Double radiusKm);
+
+    /* ===== All Restaurants Within A Radius (database, paged) ===== */
+    NearbyRestaurantPageResponse findWithin(Double latitude, Double longitude, Double radiusKm, Integer limit,
+                                            Double afterDistanceKm, Long afterUserId);
+
+    /* ===== Restaurants In The User's Delivery Zone (cell + neighbor ring) ===== */
+    List<NearbyRestaurantResponse> findInDeliveryZone(Long userId, Integer resolution, Integer ring, Integer limit);
+}
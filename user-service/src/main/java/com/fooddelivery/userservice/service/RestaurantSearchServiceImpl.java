@@ -0,0 +1,174 @@
+package com.fooddelivery.userservice.service;
+
+import com.fooddelivery.userservice.cache.UserProfileCache;
+import com.fooddelivery.userservice.dto.projection.RestaurantDistanceView;
+import com.fooddelivery.userservice.dto.projection.RestaurantLocationView;
+import com.fooddelivery.userservice.dto.response.NearbyRestaurantPageResponse;
+import com.fooddelivery.userservice.dto.response.NearbyRestaurantResponse;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.entity.UserStatus;
+import com.fooddelivery.userservice.exception.BadRequestException;
+import com.fooddelivery.userservice.exception.ResourceNotFoundException;
+import com.fooddelivery.userservice.geo.BoundingBox;
+import com.fooddelivery.userservice.geo.Haversine;
+import com.fooddelivery.userservice.geo.RestaurantSpatialIndex;
+import com.fooddelivery.userservice.geo.ZoneCells;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class RestaurantSearchServiceImpl implements RestaurantSearchService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_RING = 3;
+
+    private final RestaurantSpatialIndex restaurantIndex;
+    private final UserProfileRepository userProfileRepository;
+    private final UserProfileCache profileCache;
+    private final double maxRadiusKm;
+
+    public RestaurantSearchServiceImpl(
+            RestaurantSpatialIndex restaurantIndex,
+            UserProfileRepository userProfileRepository,
+            UserProfileCache profileCache,
+            @Value("${restaurants.search.max-radius-km:50}") double maxRadiusKm
+    ) {
+        this.restaurantIndex = restaurantIndex;
+        this.userProfileRepository = userProfileRepository;
+        this.profileCache = profileCache;
+        this.maxRadiusKm = maxRadiusKm;
+    }
+
+    @Override
+    public List<NearbyRestaurantResponse> findNearby(Double latitude, Double longitude, Integer limit, Double radiusKm) {
+
+        validateSearch(latitude, longitude, limit);
+        // the radius also bounds how many empty cells a search may visit
+        double radius = validateRadius(radiusKm);
+
+        return restaurantIndex.nearest(latitude, longitude, limit, radius).stream()
+                .map(match -> NearbyRestaurantResponse.builder()
+                        .userId(match.userId())
+                        .latitude(match.latitude())
+                        .longitude(match.longitude())
+                        .distanceKm(match.distanceKm())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public NearbyRestaurantPageResponse findWithin(Double latitude, Double longitude, Double radiusKm, Integer limit,
+                                                   Double afterDistanceKm, Long afterUserId) {
+
+        validateSearch(latitude, longitude, limit);
+        double radius = validateRadius(radiusKm);
+        if ((afterDistanceKm == null) != (afterUserId == null)) {
+            throw new BadRequestException("afterDistanceKm and afterUserId must be given together");
+        }
+
+        List<RestaurantDistanceView> page = userProfileRepository.findRestaurantsWithin(
+                latitude,
+                longitude,
+                radius,
+                BoundingBox.around(latitude, longitude, radius).toWkt(),
+                afterDistanceKm != null ? afterDistanceKm : -1,
+                afterUserId != null ? afterUserId : Long.MIN_VALUE,
+                limit
+        );
+
+        List<NearbyRestaurantResponse> restaurants = page.stream()
+                .map(restaurant -> NearbyRestaurantResponse.builder()
+                        .userId(restaurant.getUserId())
+                        .latitude(restaurant.getLatitude())
+                        .longitude(restaurant.getLongitude())
+                        .distanceKm(restaurant.getDistanceKm())
+                        .build())
+                .toList();
+
+        NearbyRestaurantResponse last = restaurants.size() == limit ? restaurants.get(limit - 1) : null;
+        return NearbyRestaurantPageResponse.builder()
+                .restaurants(restaurants)
+                .nextAfterDistanceKm(last != null ? last.getDistanceKm() : null)
+                .nextAfterUserId(last != null ? last.getUserId() : null)
+                .build();
+    }
+
+    @Override
+    public List<NearbyRestaurantResponse> findInDeliveryZone(Long userId, Integer resolution, Integer ring, Integer limit) {
+
+        if (ring == null || ring < 0 || ring > MAX_RING) {
+            throw new BadRequestException("Ring must be between 0 and " + MAX_RING);
+        }
+        if (limit == null || limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        UserProfile profile = profileCache.get(userId, userProfileRepository::findById)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("User profile not found for userId: " + userId)
+                );
+        if (profile.getLatitude() == null || profile.getLongitude() == null) {
+            throw new BadRequestException("Add the coordinates of your address first");
+        }
+
+        // restaurant cells were assigned on write; only the caller's ring is computed here
+        int zoneResolution = resolution != null ? resolution : ZoneCells.ZONE;
+        if (zoneResolution != ZoneCells.CITY && zoneResolution != ZoneCells.ZONE && zoneResolution != ZoneCells.BLOCK) {
+            throw new BadRequestException("Resolution must be one of "
+                    + ZoneCells.CITY + ", " + ZoneCells.ZONE + " or " + ZoneCells.BLOCK);
+        }
+        List<Long> cells = ZoneCells.withRing(
+                ZoneCells.cellId(zoneResolution, profile.getLatitude(), profile.getLongitude()), ring);
+
+        double latitude = profile.getLatitude();
+        double longitude = profile.getLongitude();
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        // the database keeps the nearest rows, the exact distance only reorders them
+        PageRequest nearest = PageRequest.of(0, limit);
+        List<RestaurantLocationView> restaurants = switch (zoneResolution) {
+            case ZoneCells.CITY -> userProfileRepository.findLocationsInZoneCell10(
+                    cells, Role.RESTAURANT, UserStatus.ACTIVE, latitude, longitude, cosLatitude, nearest);
+            case ZoneCells.ZONE -> userProfileRepository.findLocationsInZoneCell12(
+                    cells, Role.RESTAURANT, UserStatus.ACTIVE, latitude, longitude, cosLatitude, nearest);
+            default -> userProfileRepository.findLocationsInZoneCell14(
+                    cells, Role.RESTAURANT, UserStatus.ACTIVE, latitude, longitude, cosLatitude, nearest);
+        };
+
+        return restaurants.stream()
+                .map(restaurant -> NearbyRestaurantResponse.builder()
+                        .userId(restaurant.userId())
+                        .latitude(restaurant.latitude())
+                        .longitude(restaurant.longitude())
+                        .distanceKm(Haversine.distanceKm(latitude, longitude,
+                                restaurant.latitude(), restaurant.longitude()))
+                        .build())
+                .sorted(Comparator.comparing(NearbyRestaurantResponse::getDistanceKm))
+                .toList();
+    }
+
+    private void validateSearch(Double latitude, Double longitude, Integer limit) {
+        if (latitude == null || latitude < -90 || latitude > 90) {
+            throw new BadRequestException("Latitude must be between -90 and 90");
+        }
+        if (longitude == null || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Longitude must be between -180 and 180");
+        }
+        if (limit == null || limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    private double validateRadius(Double radiusKm) {
+        double radius = radiusKm != null ? radiusKm : maxRadiusKm;
+        if (radius <= 0 || radius > maxRadiusKm) {
+            throw new BadRequestException("Radius must be greater than 0 and at most " + maxRadiusKm + " km");
+        }
+        return radius;
+    }
+}
@@ -1,11 +1,14 @@
 package com.fooddelivery.userservice.service;
 
 import com.fooddelivery.userservice.dto.request.*;
+import com.fooddelivery.userservice.dto.response.LocationUpdateResultResponse;
 import com.fooddelivery.userservice.dto.response.UserProfileAddressResponse;
 import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
 import com.fooddelivery.userservice.dto.response.UserProfilePictureResponse;
 import jakarta.transaction.Transactional;
 
+import java.util.List;
+
 public interface UserProfileService {
 
     /* ===== Basic Data ===== */
@@ -17,6 +20,10 @@ public interface UserProfileService {
 
     /* ===== Location (Map / Delivery) ===== */
     void updateLocation(UserProfileUpdateLocationRequest request, Long userId);
+    List<LocationUpdateResultResponse> updateLocations(AuthenticatedUser user, UserProfileUpdateLocationsRequest request);
+
+    /* ===== Ownership ===== */
+    void assignOwner(Long userId, UserProfileAssignOwnerRequest request);
 
     /* ===== Profile Image ===== */
     void updateProfileImage(UserProfileImageRequest request, Long userId);
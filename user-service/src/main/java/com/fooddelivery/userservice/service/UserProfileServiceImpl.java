@@ -1,7 +1,15 @@
 package com.fooddelivery.userservice.service;
 
+import com.fooddelivery.userservice.cache.ProfileChangeLog;
+import com.fooddelivery.userservice.cache.UserProfileCache;
+import com.fooddelivery.userservice.diagnostics.S3PutObjectEvent;
 import com.fooddelivery.userservice.dto.mapper.UserProfileMapper;
+import com.fooddelivery.userservice.dto.projection.RestaurantOwnershipView;
+import com.fooddelivery.userservice.dto.projection.UserProfileAddressView;
+import com.fooddelivery.userservice.dto.projection.UserProfilePictureView;
 import com.fooddelivery.userservice.dto.request.*;
+import com.fooddelivery.userservice.dto.response.LocationUpdateResultResponse;
+import com.fooddelivery.userservice.dto.response.LocationUpdateResultResponse.Result;
 import com.fooddelivery.userservice.dto.response.UserProfileAddressResponse;
 import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
 import com.fooddelivery.userservice.dto.response.UserProfilePictureResponse;
@@ -11,13 +19,16 @@ import com.fooddelivery.userservice.entity.UserProfile;
 import com.fooddelivery.userservice.entity.UserStatus;
 import com.fooddelivery.userservice.exception.BadRequestException;
 import com.fooddelivery.userservice.exception.ResourceNotFoundException;
+import com.fooddelivery.userservice.geo.LocationWriteBuffer;
+import com.fooddelivery.userservice.geo.RestaurantSpatialIndex;
 import com.fooddelivery.userservice.repository.UserProfileRepository;
-import jakarta.transaction.Transactional;
+import com.fooddelivery.userservice.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import software.amazon.awssdk.core.sync.RequestBody;
@@ -25,8 +36,14 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +56,10 @@ public class UserProfileServiceImpl implements UserProfileService {
     private final S3Client s3Client;
     private final UserProfileRepository userProfileRepository;
     private final UserProfileMapper mapper;
+    private final UserProfileCache profileCache;
+    private final ProfileChangeLog profileChangeLog;
+    private final RestaurantSpatialIndex restaurantIndex;
+    private final LocationWriteBuffer locationBuffer;
 
     @Transactional
     @Override
@@ -60,6 +81,7 @@ public class UserProfileServiceImpl implements UserProfileService {
         profile.setStatus(UserStatus.BASICDATA);
 
         UserProfile savedProfile = userProfileRepository.save(profile);
+        profileChanged(savedProfile);
         return mapper.toBasicResponse(savedProfile);
     }
 
@@ -84,8 +106,11 @@ public class UserProfileServiceImpl implements UserProfileService {
 
     private UserProfileBasicResponse updateProfile(UserProfile profile, UserProfileUpsertBasicDataRequest request) {
         profile.ensureUpdateIsAllowed();
+        applyPendingLocation(profile);
         mapper.updateEntityFromDto(request, profile);
-        return mapper.toBasicResponse(userProfileRepository.save(profile));
+        UserProfile savedProfile = userProfileRepository.save(profile);
+        profileChanged(profile);
+        return mapper.toBasicResponse(savedProfile);
     }
 
     @Transactional
@@ -97,7 +122,11 @@ public class UserProfileServiceImpl implements UserProfileService {
                         new ResourceNotFoundException("User profile not found for userId: " + userId)
                 );
 
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new BadRequestException("Latitude and longitude must be given together");
+        }
 
+        applyPendingLocation(userProfile);
         mapper.updateAddressFromDto(request, userProfile);
 
         if (UserStatus.BASICDATA.equals(userProfile.getStatus())) {
@@ -107,16 +136,39 @@ public class UserProfileServiceImpl implements UserProfileService {
                 userProfile.setStatus(UserStatus.ACTIVE);
         }
         userProfileRepository.save(userProfile);
+        profileChanged(userProfile);
+
+        // a flush of an earlier push must not overwrite the new coordinates
+        if (request.getLatitude() != null && Role.RESTAURANT.equals(userProfile.getRole())) {
+            Double latitude = request.getLatitude();
+            Double longitude = request.getLongitude();
+            TransactionCallbacks.afterCommit(() -> locationBuffer.put(userId, latitude, longitude));
+        }
     }
 
     @Override
     public UserProfileAddressResponse getUserAddress(Long userId) {
-        UserProfile userProfile = userProfileRepository.findById(userId)
+        Optional<UserProfile> cached = profileCache.getIfPresent(userId);
+        if (cached.isPresent()) {
+            return withPendingLocation(userId, convertAddressToResponse(cached.get()));
+        }
+
+        // miss: read just the address columns instead of loading the profile
+        UserProfileAddressView address = userProfileRepository.findAddressByUserId(userId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("User profile not found for userId: " + userId)
                 );
 
-        return convertAddressToResponse(userProfile);
+        return withPendingLocation(userId, convertAddressToResponse(address));
+    }
+
+    // a buffered location push is newer than the cached or stored row
+    private UserProfileAddressResponse withPendingLocation(Long userId, UserProfileAddressResponse address) {
+        locationBuffer.pending(userId).ifPresent(location -> {
+            address.setLatitude(location.latitude());
+            address.setLongitude(location.longitude());
+        });
+        return address;
     }
 
     private UserProfileAddressResponse convertAddressToResponse(UserProfile userProfile) {
@@ -132,10 +184,23 @@ public class UserProfileServiceImpl implements UserProfileService {
                 .build();
     }
 
+    private UserProfileAddressResponse convertAddressToResponse(UserProfileAddressView address) {
+        return UserProfileAddressResponse.builder()
+                .country(address.country())
+                .city(address.city())
+                .area(address.area())
+                .street(address.street())
+                .apartmentNumber(address.apartmentNumber())
+                .buildingNumber(address.buildingNumber())
+                .latitude(address.latitude())
+                .longitude(address.longitude())
+                .build();
+    }
+
     @Override
     public UserProfileBasicResponse getUserProfile(Long userId) {
 
-        UserProfile userProfile = userProfileRepository.findById(userId)
+        UserProfile userProfile = profileCache.get(userId, userProfileRepository::findById)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("User profile not found for userId: " + userId)
                 );
@@ -145,11 +210,18 @@ public class UserProfileServiceImpl implements UserProfileService {
 
     // ================= LOCATION =================
 
-    @Transactional
+    /**
+     * Devices push their location every few seconds, so the push is buffered and
+     * written behind by {@link LocationWriteBuffer}; the nearby index sees it at once.
+     */
     @Override
     public void updateLocation(UserProfileUpdateLocationRequest request, Long userId) {
 
-        UserProfile userProfile = userProfileRepository.findById(userId)
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new BadRequestException("Latitude and longitude must be given together");
+        }
+
+        UserProfile userProfile = profileCache.get(userId, userProfileRepository::findById)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("User profile not found for userId: " + userId)
                 );
@@ -158,10 +230,118 @@ public class UserProfileServiceImpl implements UserProfileService {
             throw new BadRequestException("Location update is allowed only for restaurants");
         }
 
-        userProfile.setLatitude(request.getLatitude());
-        userProfile.setLongitude(request.getLongitude());
+        locationBuffer.put(userId, request.getLatitude(), request.getLongitude());
+        restaurantIndex.update(userId, userProfile.getRole(), userProfile.getStatus(),
+                request.getLatitude(), request.getLongitude());
+    }
+
+    /**
+     * Applies many location pushes at once, typically a chain operator's branches.
+     * Every entry is authorized on its own: one lookup reads all the profiles,
+     * and accepted entries go through the same write-behind buffer as single
+     * pushes, so they are written in its JDBC batches.
+     */
+    @Override
+    public List<LocationUpdateResultResponse> updateLocations(
+            AuthenticatedUser user, UserProfileUpdateLocationsRequest request) {
+
+        List<UserProfileUpdateLocationsRequest.Location> locations = request.getLocations();
+        Map<Long, RestaurantOwnershipView> profiles = userProfileRepository.findOwnershipByUserIdIn(
+                        locations.stream().map(UserProfileUpdateLocationsRequest.Location::getUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(RestaurantOwnershipView::userId, Function.identity()));
+
+        List<LocationUpdateResultResponse> results = new ArrayList<>(locations.size());
+        for (UserProfileUpdateLocationsRequest.Location location : locations) {
+            results.add(updateLocation(user, location, profiles.get(location.getUserId())));
+        }
+        return results;
+    }
+
+    private LocationUpdateResultResponse updateLocation(
+            AuthenticatedUser user, UserProfileUpdateLocationsRequest.Location location, RestaurantOwnershipView profile) {
+
+        Long userId = location.getUserId();
+        if ((location.getLatitude() == null) != (location.getLongitude() == null)) {
+            return locationResult(userId, Result.INVALID, "Latitude and longitude must be given together");
+        }
+        // only admins learn which ids exist, everyone else is refused the same way
+        if (profile == null && !isAdmin(user)) {
+            return locationResult(userId, Result.FORBIDDEN, "Not allowed to update the location of userId: " + userId);
+        }
+        if (profile == null) {
+            return locationResult(userId, Result.NOT_FOUND, "User profile not found for userId: " + userId);
+        }
+        if (!mayUpdateLocation(user, profile)) {
+            return locationResult(userId, Result.FORBIDDEN, "Not allowed to update the location of userId: " + userId);
+        }
+        if (profile.role() != Role.RESTAURANT) {
+            return locationResult(userId, Result.INVALID, "Location update is allowed only for restaurants");
+        }
+
+        locationBuffer.put(userId, location.getLatitude(), location.getLongitude());
+        restaurantIndex.update(userId, profile.role(), profile.status(), location.getLatitude(), location.getLongitude());
+        return locationResult(userId, Result.UPDATED, "Location updated");
+    }
+
+    // a restaurant moves itself, a chain operator its branches, an admin anyone
+    private static boolean mayUpdateLocation(AuthenticatedUser user, RestaurantOwnershipView profile) {
+        return isAdmin(user)
+                || user.getUserId().equals(profile.userId())
+                || user.getUserId().equals(profile.ownerId());
+    }
+
+    private static boolean isAdmin(AuthenticatedUser user) {
+        return Role.ADMIN.name().equals(user.getRole());
+    }
+
+    private static LocationUpdateResultResponse locationResult(Long userId, Result result, String message) {
+        return LocationUpdateResultResponse.builder()
+                .userId(userId)
+                .result(result)
+                .message(message)
+                .build();
+    }
+
+    // ================= OWNERSHIP =================
+
+    /**
+     * Assigns the chain operator allowed to move a restaurant branch, or clears it
+     * when {@code ownerId} is null. The owner must have a restaurant or admin
+     * profile, the roles allowed to call the location batch endpoint.
+     */
+    @Transactional
+    @Override
+    public void assignOwner(Long userId, UserProfileAssignOwnerRequest request) {
+
+        UserProfile userProfile = userProfileRepository.findById(userId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("User profile not found for userId: " + userId)
+                );
+
+        if (userProfile.getRole() != Role.RESTAURANT) {
+            throw new BadRequestException("Only restaurants can have an owner");
+        }
+
+        Long ownerId = request.getOwnerId();
+        if (userId.equals(ownerId)) {
+            throw new BadRequestException("A restaurant cannot own itself");
+        }
+        if (ownerId != null) {
+            UserProfile owner = userProfileRepository.findById(ownerId)
+                    .orElseThrow(() ->
+                            new ResourceNotFoundException("User profile not found for userId: " + ownerId)
+                    );
+            if (owner.getRole() != Role.RESTAURANT && owner.getRole() != Role.ADMIN) {
+                throw new BadRequestException("Only restaurant or admin accounts can own a restaurant");
+            }
+        }
+
+        userProfile.setOwnerId(ownerId);
+        applyPendingLocation(userProfile);
 
         userProfileRepository.save(userProfile);
+        profileChanged(userProfile);
     }
 
     // ================= PROFILE IMAGE =================
@@ -177,8 +357,10 @@ public class UserProfileServiceImpl implements UserProfileService {
 
         String imageUrl = uploadFile(picRequest.getImage());
         userProfile.setProfileImageUrl(imageUrl);
+        applyPendingLocation(userProfile);
 
         userProfileRepository.save(userProfile);
+        profileChanged(userProfile);
     }
 
     private String uploadFile(MultipartFile file) {
@@ -203,7 +385,8 @@ public class UserProfileServiceImpl implements UserProfileService {
                     .contentType(file.getContentType())
                     .build();
 
-            s3Client.putObject(request, RequestBody.fromBytes(file.getBytes()));
+            byte[] content = file.getBytes();
+            putObject(request, content);
 
             return "https://" + bucketName + ".s3.amazonaws.com/" + key;
 
@@ -217,18 +400,61 @@ public class UserProfileServiceImpl implements UserProfileService {
         }
     }
 
+    private void putObject(PutObjectRequest request, byte[] content) {
+        S3PutObjectEvent event = new S3PutObjectEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            s3Client.putObject(request, RequestBody.fromBytes(content));
+            succeeded = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.bucket = request.bucket();
+                event.key = request.key();
+                event.contentType = request.contentType();
+                event.size = content.length;
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+
+    // other nodes drop their cached copy once the change-log row commits
+    private void profileChanged(UserProfile profile) {
+        profileChangeLog.append(profile.getUserId());
+        profileCache.putAfterCommit(profile);
+        restaurantIndex.updateAfterCommit(profile);
+    }
+
+    // the row is older than a buffered location push, keep the push when saving it
+    private void applyPendingLocation(UserProfile profile) {
+        locationBuffer.pending(profile.getUserId()).ifPresent(location -> {
+            profile.setLatitude(location.latitude());
+            profile.setLongitude(location.longitude());
+        });
+    }
+
     // ================= PROFILE PICTURE =================
 
     @Override
     public UserProfilePictureResponse getProfilePicture(Long userId) {
 
-        UserProfile userProfile = userProfileRepository.findById(userId)
+        Optional<UserProfile> cached = profileCache.getIfPresent(userId);
+        if (cached.isPresent()) {
+            return UserProfilePictureResponse.builder()
+                    .profileImageUrl(cached.get().getProfileImageUrl())
+                    .build();
+        }
+
+        // miss: primary-key read of the picture url only
+        UserProfilePictureView picture = userProfileRepository.findPictureByUserId(userId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("User profile not found for userId: " + userId)
                 );
 
         return UserProfilePictureResponse.builder()
-                .profileImageUrl(userProfile.getProfileImageUrl())
+                .profileImageUrl(picture.profileImageUrl())
                 .build();
     }
 }
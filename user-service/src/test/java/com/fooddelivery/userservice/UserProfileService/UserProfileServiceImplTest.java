@@ -1,7 +1,15 @@
 package com.fooddelivery.userservice.UserProfileService;
 
+import com.fooddelivery.userservice.cache.ProfileChangeLog;
+import com.fooddelivery.userservice.cache.UserProfileCache;
 import com.fooddelivery.userservice.dto.mapper.UserProfileMapper;
+import com.fooddelivery.userservice.dto.projection.RestaurantOwnershipView;
+import com.fooddelivery.userservice.dto.projection.UserProfileAddressView;
+import com.fooddelivery.userservice.dto.projection.UserProfilePictureView;
 import com.fooddelivery.userservice.dto.request.*;
+import com.fooddelivery.userservice.dto.response.LocationUpdateResultResponse;
+import com.fooddelivery.userservice.dto.response.LocationUpdateResultResponse.Result;
+import com.fooddelivery.userservice.dto.response.UserProfileAddressResponse;
 import com.fooddelivery.userservice.dto.response.UserProfileBasicResponse;
 import com.fooddelivery.userservice.entity.Gender;
 import com.fooddelivery.userservice.entity.Role;
@@ -9,8 +17,11 @@ import com.fooddelivery.userservice.entity.UserProfile;
 import com.fooddelivery.userservice.entity.UserStatus;
 import com.fooddelivery.userservice.exception.BadRequestException;
 import com.fooddelivery.userservice.exception.ResourceNotFoundException;
+import com.fooddelivery.userservice.geo.LocationWriteBuffer;
+import com.fooddelivery.userservice.geo.RestaurantSpatialIndex;
 import com.fooddelivery.userservice.repository.UserProfileRepository;
 import com.fooddelivery.userservice.service.UserProfileServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +29,9 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.s3.S3Client;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +50,19 @@ class UserProfileServiceImplTest {
     @Mock
     private S3Client s3Client;
 
+    @Mock
+    private ProfileChangeLog profileChangeLog;
+
+    @Mock
+    private RestaurantSpatialIndex restaurantIndex;
+
+    @Mock
+    private LocationWriteBuffer locationBuffer;
+
+    @Spy
+    private UserProfileCache profileCache =
+            new UserProfileCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
     @InjectMocks
     private UserProfileServiceImpl service;
 
@@ -126,6 +153,17 @@ class UserProfileServiceImplTest {
         );
     }
 
+    @Test
+    void updateAddress_latitudeWithoutLongitude_throwException() {
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+
+        UserProfileUpsertAddressRequest request = new UserProfileUpsertAddressRequest();
+        request.setLatitude(30.0);
+
+        assertThrows(BadRequestException.class, () -> service.updateAddress(request, 1L));
+        verify(userProfileRepository, never()).save(any());
+    }
+
     @Test
     void updateAddress_basicDataToActive_success() {
 
@@ -154,6 +192,21 @@ class UserProfileServiceImplTest {
         );
     }
 
+    @Test
+    void updateLocation_onlyOneCoordinate_throwException() {
+
+        UserProfileUpdateLocationRequest request = new UserProfileUpdateLocationRequest();
+        request.setLatitude(30.0);
+
+        BadRequestException ex = assertThrows(
+                BadRequestException.class,
+                () -> service.updateLocation(request, 1L)
+        );
+
+        assertEquals("Latitude and longitude must be given together", ex.getMessage());
+        verifyNoInteractions(locationBuffer, restaurantIndex);
+    }
+
     @Test
     void updateLocation_restaurant_success() {
 
@@ -166,6 +219,163 @@ class UserProfileServiceImplTest {
 
         service.updateLocation(request, 1L);
 
+        verify(locationBuffer).put(1L, 30.0, 31.0);
+        verify(restaurantIndex).update(1L, Role.RESTAURANT, userProfile.getStatus(), 30.0, 31.0);
+        verify(userProfileRepository, never()).save(any());
+    }
+
+    @Test
+    void updateLocations_authorizesEachEntry() {
+
+        AuthenticatedUser operator = new AuthenticatedUser(100L, "chain@mail.com", "RESTAURANT");
+        when(userProfileRepository.findOwnershipByUserIdIn(any())).thenReturn(List.of(
+                new RestaurantOwnershipView(100L, Role.RESTAURANT, UserStatus.ACTIVE, null),
+                new RestaurantOwnershipView(110L, Role.RESTAURANT, UserStatus.ACTIVE, 100L),
+                new RestaurantOwnershipView(120L, Role.RESTAURANT, UserStatus.ACTIVE, 200L),
+                new RestaurantOwnershipView(130L, Role.CUSTOMER, UserStatus.ACTIVE, 100L)
+        ));
+
+        UserProfileUpdateLocationsRequest request = new UserProfileUpdateLocationsRequest(List.of(
+                new UserProfileUpdateLocationsRequest.Location(100L, 30.0, 31.0),
+                new UserProfileUpdateLocationsRequest.Location(110L, 30.1, 31.1),
+                new UserProfileUpdateLocationsRequest.Location(120L, 30.2, 31.2),
+                new UserProfileUpdateLocationsRequest.Location(130L, 30.3, 31.3),
+                new UserProfileUpdateLocationsRequest.Location(140L, 30.4, 31.4),
+                new UserProfileUpdateLocationsRequest.Location(110L, 30.5, null)
+        ));
+
+        List<Result> results = service.updateLocations(operator, request).stream()
+                .map(LocationUpdateResultResponse::getResult)
+                .toList();
+
+        assertEquals(List.of(Result.UPDATED, Result.UPDATED, Result.FORBIDDEN,
+                Result.INVALID, Result.FORBIDDEN, Result.INVALID), results);
+        verify(locationBuffer).put(100L, 30.0, 31.0);
+        verify(locationBuffer).put(110L, 30.1, 31.1);
+        verify(locationBuffer, times(2)).put(any(), any(), any());
+        verify(restaurantIndex).update(110L, Role.RESTAURANT, UserStatus.ACTIVE, 30.1, 31.1);
+        verify(userProfileRepository, never()).findById(any());
+    }
+
+    @Test
+    void updateLocations_adminMayUpdateAnyRestaurant() {
+
+        AuthenticatedUser admin = new AuthenticatedUser(9L, "admin@mail.com", "ADMIN");
+        when(userProfileRepository.findOwnershipByUserIdIn(any())).thenReturn(List.of(
+                new RestaurantOwnershipView(120L, Role.RESTAURANT, UserStatus.ACTIVE, 200L)));
+
+        List<LocationUpdateResultResponse> results = service.updateLocations(admin,
+                new UserProfileUpdateLocationsRequest(List.of(
+                        new UserProfileUpdateLocationsRequest.Location(120L, 30.2, 31.2))));
+
+        assertEquals(Result.UPDATED, results.get(0).getResult());
+        verify(locationBuffer).put(120L, 30.2, 31.2);
+    }
+
+    @Test
+    void updateLocations_unknownIdLooksForbiddenToNonAdmins() {
+
+        AuthenticatedUser operator = new AuthenticatedUser(100L, "chain@mail.com", "RESTAURANT");
+        AuthenticatedUser admin = new AuthenticatedUser(9L, "admin@mail.com", "ADMIN");
+        // 120 exists but belongs to someone else, 140 does not exist
+        when(userProfileRepository.findOwnershipByUserIdIn(any())).thenReturn(List.of(
+                new RestaurantOwnershipView(120L, Role.RESTAURANT, UserStatus.ACTIVE, 200L)));
+        UserProfileUpdateLocationsRequest request = new UserProfileUpdateLocationsRequest(List.of(
+                new UserProfileUpdateLocationsRequest.Location(120L, 30.2, 31.2),
+                new UserProfileUpdateLocationsRequest.Location(140L, 30.4, 31.4)));
+
+        List<LocationUpdateResultResponse> forOperator = service.updateLocations(operator, request);
+        assertEquals(forOperator.get(0).getResult(), forOperator.get(1).getResult());
+        assertEquals(forOperator.get(0).getMessage().replace("120", "140"), forOperator.get(1).getMessage());
+
+        assertEquals(Result.NOT_FOUND, service.updateLocations(admin, request).get(1).getResult());
+    }
+
+    // ================= OWNERSHIP =================
+
+    @Test
+    void assignOwner_restaurant_success() {
+
+        UserProfile owner = new UserProfile();
+        owner.setRole(Role.RESTAURANT);
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+        when(userProfileRepository.findById(100L)).thenReturn(Optional.of(owner));
+
+        service.assignOwner(1L, new UserProfileAssignOwnerRequest(100L));
+
+        assertEquals(100L, userProfile.getOwnerId());
+        verify(userProfileRepository).save(userProfile);
+        verify(profileChangeLog).append(1L);
+    }
+
+    @Test
+    void assignOwner_nullOwner_clearsOwnership() {
+
+        userProfile.setOwnerId(100L);
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+
+        service.assignOwner(1L, new UserProfileAssignOwnerRequest(null));
+
+        assertNull(userProfile.getOwnerId());
+        verify(userProfileRepository).save(userProfile);
+        verify(userProfileRepository, never()).findById(100L);
+    }
+
+    @Test
+    void assignOwner_unknownOwner_throwException() {
+
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+        when(userProfileRepository.findById(100L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.assignOwner(1L, new UserProfileAssignOwnerRequest(100L)));
+
+        verify(userProfileRepository, never()).save(any());
+    }
+
+    @Test
+    void assignOwner_ownerCannotMoveLocations_throwException() {
+
+        UserProfile owner = new UserProfile();
+        owner.setRole(Role.CUSTOMER);
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+        when(userProfileRepository.findById(100L)).thenReturn(Optional.of(owner));
+
+        assertThrows(BadRequestException.class,
+                () -> service.assignOwner(1L, new UserProfileAssignOwnerRequest(100L)));
+
+        verify(userProfileRepository, never()).save(any());
+    }
+
+    @Test
+    void assignOwner_notRestaurant_throwException() {
+
+        userProfile.setRole(Role.CUSTOMER);
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+
+        assertThrows(BadRequestException.class,
+                () -> service.assignOwner(1L, new UserProfileAssignOwnerRequest(100L)));
+    }
+
+    @Test
+    void assignOwner_selfOwnership_throwException() {
+
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+
+        assertThrows(BadRequestException.class,
+                () -> service.assignOwner(1L, new UserProfileAssignOwnerRequest(1L)));
+    }
+
+    @Test
+    void updateAddress_keepsBufferedLocation() {
+
+        userProfile.setStatus(UserStatus.ACTIVE);
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+        when(locationBuffer.pending(1L)).thenReturn(Optional.of(
+                new LocationWriteBuffer.PendingLocation(30.0, 31.0, LocalDateTime.now())));
+
+        service.updateAddress(new UserProfileUpsertAddressRequest(), 1L);
+
         assertEquals(30.0, userProfile.getLatitude());
         assertEquals(31.0, userProfile.getLongitude());
         verify(userProfileRepository).save(userProfile);
@@ -199,4 +409,81 @@ class UserProfileServiceImplTest {
         );
     }
 
+    // ================= CACHE =================
+
+    @Test
+    void getUserProfile_secondRead_servedFromCache() {
+
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+
+        service.getUserProfile(1L);
+        service.getProfilePicture(1L);
+
+        verify(userProfileRepository, times(1)).findById(1L);
+        verify(mapper).toBasicResponse(userProfile);
+    }
+
+    @Test
+    void updateLocation_readsSeeBufferedLocation() {
+
+        userProfile.setRole(Role.RESTAURANT);
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.of(userProfile));
+        when(locationBuffer.pending(1L)).thenReturn(Optional.of(
+                new LocationWriteBuffer.PendingLocation(30.0, 31.0, LocalDateTime.now())));
+
+        UserProfileUpdateLocationRequest request = new UserProfileUpdateLocationRequest();
+        request.setLatitude(30.0);
+        request.setLongitude(31.0);
+
+        service.updateLocation(request, 1L);
+        UserProfileAddressResponse address = service.getUserAddress(1L);
+
+        assertEquals(30.0, address.getLatitude());
+        assertEquals(31.0, address.getLongitude());
+        verify(userProfileRepository, times(1)).findById(1L);
+        verify(profileChangeLog, never()).append(any());
+    }
+
+    @Test
+    void getUserProfile_missingProfile_notCached() {
+
+        when(userProfileRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getUserProfile(1L));
+        assertThrows(ResourceNotFoundException.class, () -> service.getUserProfile(1L));
+
+        verify(userProfileRepository, times(2)).findById(1L);
+    }
+
+    // ================= PROJECTIONS =================
+
+    @Test
+    void getUserAddress_notCached_readsAddressProjection() {
+
+        when(userProfileRepository.findAddressByUserId(1L)).thenReturn(Optional.of(
+                new UserProfileAddressView("Egypt", "Cairo", "Maadi", "Road 9", "12", "3", 29.96, 31.25)));
+
+        UserProfileAddressResponse address = service.getUserAddress(1L);
+
+        assertEquals("Cairo", address.getCity());
+        assertEquals(31.25, address.getLongitude());
+        verify(userProfileRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProfilePicture_profileWithoutPicture_returnsEmptyUrl() {
+
+        when(userProfileRepository.findPictureByUserId(1L))
+                .thenReturn(Optional.of(new UserProfilePictureView(null)));
+
+        assertNull(service.getProfilePicture(1L).getProfileImageUrl());
+    }
+
+    @Test
+    void getProfilePicture_profileNotFound_throwException() {
+
+        when(userProfileRepository.findPictureByUserId(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getProfilePicture(1L));
+    }
 }
@@ -0,0 +1,186 @@
+package com.fooddelivery.userservice.cache;
+
+import com.fooddelivery.userservice.entity.ProfileChange;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.repository.ProfileChangeRepository;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProfileChangeLogTest {
+
+    private ProfileChangeRepository repository;
+    private UserProfileRepository userProfileRepository;
+    private UserProfileCache profileCache;
+    private ProfileChangeListener listener;
+    private ProfileChangeLog changeLog;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(ProfileChangeRepository.class);
+        userProfileRepository = mock(UserProfileRepository.class);
+        profileCache = spy(new UserProfileCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
+        listener = mock(ProfileChangeListener.class);
+        changeLog = new ProfileChangeLog(repository, mock(JdbcTemplate.class), userProfileRepository, profileCache, List.of(listener),
+                new SimpleMeterRegistry(), 2, Duration.ofSeconds(30), Duration.ofHours(1));
+
+        when(repository.findMaxId()).thenReturn(10L);
+        changeLog.poll();
+    }
+
+    @Test
+    void firstPoll_startsAtLatestChange() {
+        assertEquals(10L, changeLog.cursor());
+        verify(profileCache).invalidateAll();
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    void poll_invalidatesChangesFromOtherNodesInOneBatch() {
+        cache(1L);
+        cache(2L);
+        cache(3L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change(11, 1L, "other-node"), change(12, 2L, "other-node")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class)))
+                .thenReturn(List.of(change(13, 3L, changeLog.nodeId())));
+
+        changeLog.poll();
+
+        assertEquals(13L, changeLog.cursor());
+        verify(profileCache).refreshAll(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))), any());
+        verify(listener).profilesChanged(Set.of(1L, 2L));
+        assertTrue(cached(3L), "own changes are refreshed after commit, not dropped");
+    }
+
+    @Test
+    void poll_lateCommitBelowCursor_pickedUpOnNextPoll() {
+        cache(5L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change(12, 1L, "other-node")));
+
+        changeLog.poll();
+        assertEquals(12L, changeLog.cursor());
+        assertTrue(cached(5L));
+
+        when(repository.findByIdIn(Set.of(11L))).thenReturn(List.of(change(11, 5L, "other-node")));
+
+        changeLog.poll();
+
+        assertFalse(cached(5L));
+    }
+
+    @Test
+    void poll_laggingReplica_cachesPrimaryRow() {
+        // replica still serves the row from before the change on the other node
+        UserProfile stale = profile(1L, "Old Street");
+        UserProfile fresh = profile(1L, "New Street");
+        assertSame(stale, profileCache.get(1L, id -> Optional.of(stale)).orElseThrow());
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change(11, 1L, "other-node")));
+        when(userProfileRepository.findByUserIdIn(List.of(1L))).thenReturn(List.of(fresh));
+
+        changeLog.poll();
+
+        assertSame(fresh, profileCache.get(1L, id -> Optional.of(stale)).orElseThrow());
+    }
+
+    @Test
+    void poll_replicaLoadDuringRefresh_isNotCached() {
+        UserProfile stale = profile(1L, "Old Street");
+        UserProfile fresh = profile(1L, "New Street");
+        cache(1L);
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change(11, 1L, "other-node")));
+        // a read misses while the primary row is on its way and loads the replica's copy
+        when(userProfileRepository.findByUserIdIn(List.of(1L))).thenAnswer(invocation -> {
+            assertSame(stale, profileCache.get(1L, id -> Optional.of(stale)).orElseThrow());
+            return List.of(fresh);
+        });
+
+        changeLog.poll();
+
+        assertSame(fresh, profileCache.get(1L, id -> Optional.of(stale)).orElseThrow());
+    }
+
+    @Test
+    void poll_profilesNotCachedHere_areNotLoaded() {
+        cache(2L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change(11, 1L, "other-node"), change(12, 2L, "other-node")));
+        when(userProfileRepository.findByUserIdIn(List.of(2L))).thenReturn(List.of(profile(2L, "New Street")));
+
+        changeLog.poll();
+
+        verify(userProfileRepository).findByUserIdIn(List.of(2L));
+        assertFalse(cached(1L));
+        verify(listener).profilesChanged(Set.of(1L, 2L));
+    }
+
+    @Test
+    void poll_refreshFails_dropsProfilesAndMovesOn() {
+        cache(1L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change(11, 1L, "other-node")));
+        when(userProfileRepository.findByUserIdIn(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        changeLog.poll();
+
+        assertFalse(cached(1L));
+        assertEquals(11L, changeLog.cursor());
+        verify(listener).profilesChanged(Set.of(1L));
+    }
+
+    @Test
+    void poll_databaseDown_keepsCursor() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        changeLog.poll();
+
+        assertEquals(10L, changeLog.cursor());
+    }
+
+    private static UserProfile profile(Long userId, String street) {
+        UserProfile profile = new UserProfile();
+        profile.setUserId(userId);
+        profile.setStreet(street);
+        return profile;
+    }
+
+    private void cache(Long userId) {
+        UserProfile profile = new UserProfile();
+        profile.setUserId(userId);
+        profileCache.putAfterCommit(profile);
+    }
+
+    private boolean cached(Long userId) {
+        return profileCache.get(userId, id -> Optional.empty()).isPresent();
+    }
+
+    private static ProfileChange change(long id, Long userId, String origin) {
+        return ProfileChange.builder()
+                .id(id)
+                .userId(userId)
+                .origin(origin)
+                .changedAt(LocalDateTime.now())
+                .build();
+    }
+}
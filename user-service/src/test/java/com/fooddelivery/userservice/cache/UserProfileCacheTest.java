@@ -0,0 +1,72 @@
+package com.fooddelivery.userservice.cache;
+
+import com.fooddelivery.userservice.entity.UserProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProfileCacheTest {
+
+    private UserProfileCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        cache = new UserProfileCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_loadedOnceThenServedFromCache() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_invalidatedWhileLoading_returnedButNotCached() {
+        Optional<UserProfile> loaded = cache.get(1L, id -> {
+            // the change-log poller drops the user while the row is being read
+            cache.invalidateAll(Set.of(id));
+            return load(id);
+        });
+
+        assertTrue(loaded.isPresent());
+
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_writeCommittedWhileLoading_keepsWrittenProfile() {
+        UserProfile written = profile(1L);
+        written.setCity("Giza");
+
+        cache.get(1L, id -> {
+            cache.putAfterCommit(written);
+            return load(id);
+        });
+
+        assertSame(written, cache.get(1L, this::load).orElseThrow());
+        assertEquals(1, loads.get());
+    }
+
+    private Optional<UserProfile> load(Long userId) {
+        loads.incrementAndGet();
+        return Optional.of(profile(userId));
+    }
+
+    private static UserProfile profile(Long userId) {
+        UserProfile profile = new UserProfile();
+        profile.setUserId(userId);
+        return profile;
+    }
+}
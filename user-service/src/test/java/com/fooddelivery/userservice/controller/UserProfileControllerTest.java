@@ -0,0 +1,95 @@
+package com.fooddelivery.userservice.controller;
+
+import com.fooddelivery.userservice.configration.SecurityConfig;
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import com.fooddelivery.userservice.dto.request.UserProfileAssignOwnerRequest;
+import com.fooddelivery.userservice.security.RevocationSync;
+import com.fooddelivery.userservice.security.VerifiedTokenCache;
+import com.fooddelivery.userservice.service.UserProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Role checks on the profile endpoints, through the real filter chain.
+ */
+@WebMvcTest(UserProfileController.class)
+@Import(SecurityConfig.class)
+class UserProfileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserProfileService userProfileService;
+
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private RevocationSync revocationSync;
+
+    // @EnableJpaAuditing on the application class needs it even without JPA
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    void assignOwner_admin_success() throws Exception {
+        mockMvc.perform(put("/profile/110/owner").with(as("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"ownerId\":100}"))
+                .andExpect(status().isOk());
+
+        verify(userProfileService).assignOwner(110L, new UserProfileAssignOwnerRequest(100L));
+    }
+
+    @Test
+    void assignOwner_restaurant_forbidden() throws Exception {
+        mockMvc.perform(put("/profile/110/owner").with(as("RESTAURANT"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"ownerId\":100}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userProfileService);
+    }
+
+    @Test
+    void updateLocation_customer_forbidden() throws Exception {
+        mockMvc.perform(put("/profile/location").with(as("CUSTOMER"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"latitude\":30.0,\"longitude\":31.0}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userProfileService);
+    }
+
+    @Test
+    void updateLocations_customer_forbidden() throws Exception {
+        mockMvc.perform(put("/profile/locations").with(as("CUSTOMER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"locations\":[{\"userId\":110,\"latitude\":30.0,\"longitude\":31.0}]}"))
+                .andExpect(status().isForbidden());
+
+        verify(userProfileService, never()).updateLocations(any(), any());
+    }
+
+    // the principal JwtFilter would set for a token with this role
+    private static RequestPostProcessor as(String role) {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "user@mail.com", role);
+        return authentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+}
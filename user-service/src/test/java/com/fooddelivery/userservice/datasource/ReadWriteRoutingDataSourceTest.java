@@ -0,0 +1,115 @@
+package com.fooddelivery.userservice.datasource;
+
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ResultSet lagResult;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        lagResult = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(lagResult.next()).thenReturn(true);
+        when(lagResult.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("Replica_IO_State");
+        when(metaData.getColumnLabel(2)).thenReturn("Seconds_Behind_Source");
+
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(lagResult);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(connection);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(
+                Map.of("replica-0", replica), "SHOW REPLICA STATUS", Duration.ofSeconds(2), meterRegistry);
+        routingDataSource = new ReadWriteRoutingDataSource(
+                lagMonitor, new ReadYourWritesTracker(Duration.ofSeconds(5)), meterRegistry);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(1L, "test@mail.com", "CUSTOMER"), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransaction_replicaWithinLag_routedToReplica() throws Exception {
+        when(lagResult.getObject(2)).thenReturn(1L);
+        lagMonitor.check();
+
+        assertEquals("replica-0", lookupKey(true));
+    }
+
+    @Test
+    void readOnlyTransaction_replicaLagging_routedToPrimary() throws Exception {
+        when(lagResult.getObject(2)).thenReturn(30L);
+        lagMonitor.check();
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, lookupKey(true));
+    }
+
+    @Test
+    void readOnlyTransaction_replicationStopped_routedToPrimary() throws Exception {
+        when(lagResult.getObject(2)).thenReturn(null);
+        lagMonitor.check();
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, lookupKey(true));
+    }
+
+    @Test
+    void readAfterCommittedWrite_staysOnPrimary() throws Exception {
+        when(lagResult.getObject(2)).thenReturn(0L);
+        lagMonitor.check();
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, lookupKey(false));
+        // rolled back writes must not pin reads, only the commit does
+        assertEquals("replica-0", lookupKey(true));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, lookupKey(true));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(2L, "other@mail.com", "CUSTOMER"), null, List.of()));
+        assertEquals("replica-0", lookupKey(true));
+    }
+
+    private Object lookupKey(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        return routingDataSource.determineCurrentLookupKey();
+    }
+}
@@ -0,0 +1,103 @@
+package com.fooddelivery.userservice.diagnostics;
+
+import com.fooddelivery.userservice.dto.mapper.UserProfileMapper;
+import com.fooddelivery.userservice.dto.mapper.UserProfileMapperImpl;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.exception.BadRequestException;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ContinuousRecordingTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private ContinuousRecording recording;
+
+    @BeforeEach
+    void setup() {
+        recording = recording(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void dump_withoutRecording_throws() {
+        assertThrows(BadRequestException.class, () -> recording.dump());
+    }
+
+    @Test
+    void start_twice_keepsSingleRecording() {
+        assertTrue(recording.start());
+        assertFalse(recording.start());
+
+        assertTrue(recording.stop());
+        assertFalse(recording.isRunning());
+    }
+
+    @Test
+    void dump_containsRepositoryAndMapperEvents() throws Exception {
+        List<RecordedEvent> events = recordProfileRead();
+
+        assertTrue(events.stream().anyMatch(event ->
+                event.getEventType().getName().equals("com.fooddelivery.userservice.RepositoryCall")
+                        && event.getString("method").equals("findById")
+                        && event.getBoolean("succeeded")));
+        assertTrue(events.stream().anyMatch(event ->
+                event.getEventType().getName().equals("com.fooddelivery.userservice.MapperCall")
+                        && event.getString("method").equals("toBasicResponse")));
+    }
+
+    @Test
+    void dump_skipsCallsBelowEventThreshold() throws Exception {
+        recording.close();
+        recording = recording(null);
+
+        List<RecordedEvent> events = recordProfileRead();
+
+        assertTrue(events.stream().noneMatch(event ->
+                event.getEventType().getName().startsWith("com.fooddelivery.userservice.")));
+    }
+
+    private ContinuousRecording recording(Duration eventThreshold) {
+        return new ContinuousRecording(
+                false, "default", Duration.ofMinutes(5), DataSize.ofMegabytes(16), dumpDirectory, eventThreshold);
+    }
+
+    private List<RecordedEvent> recordProfileRead() throws Exception {
+        JfrEventPostProcessor postProcessor = new JfrEventPostProcessor();
+
+        UserProfileRepository repositoryMock = mock(UserProfileRepository.class);
+        when(repositoryMock.findById(1L)).thenReturn(Optional.of(new UserProfile()));
+        UserProfileRepository repository = (UserProfileRepository)
+                postProcessor.postProcessAfterInitialization(repositoryMock, "userProfileRepository");
+        UserProfileMapper mapper = (UserProfileMapper)
+                postProcessor.postProcessAfterInitialization(new UserProfileMapperImpl(), "userProfileMapper");
+
+        recording.start();
+        UserProfile profile = repository.findById(1L).orElseThrow();
+        mapper.toBasicResponse(profile);
+
+        Path file = recording.dump();
+        assertTrue(Files.size(file) > 0);
+        return RecordingFile.readAllEvents(file);
+    }
+}
@@ -0,0 +1,52 @@
+package com.fooddelivery.userservice.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundingBoxTest {
+
+    @Test
+    void containsEveryPointOnTheCircle() {
+        double latitude = 60;
+        double longitude = 10;
+        double radiusKm = 100;
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+
+        double angle = radiusKm / Haversine.EARTH_RADIUS_KM;
+        double phi = Math.toRadians(latitude);
+        for (int bearing = 0; bearing < 360; bearing++) {
+            double theta = Math.toRadians(bearing);
+            // destination point at radiusKm along the bearing
+            double phi2 = Math.asin(Math.sin(phi) * Math.cos(angle)
+                    + Math.cos(phi) * Math.sin(angle) * Math.cos(theta));
+            double lambda2 = Math.toRadians(longitude) + Math.atan2(
+                    Math.sin(theta) * Math.sin(angle) * Math.cos(phi),
+                    Math.cos(angle) - Math.sin(phi) * Math.sin(phi2));
+
+            assertTrue(Math.toDegrees(phi2) >= box.minLatitude() - 1e-9);
+            assertTrue(Math.toDegrees(phi2) <= box.maxLatitude() + 1e-9);
+            assertTrue(Math.toDegrees(lambda2) >= box.minLongitude() - 1e-9);
+            assertTrue(Math.toDegrees(lambda2) <= box.maxLongitude() + 1e-9);
+        }
+    }
+
+    @Test
+    void spansAllLongitudesAcrossTheAntimeridianAndNearPoles() {
+        BoundingBox antimeridian = BoundingBox.around(0, 179.9, 50);
+        BoundingBox pole = BoundingBox.around(89.9, 0, 50);
+
+        assertEquals(-180, antimeridian.minLongitude());
+        assertEquals(180, antimeridian.maxLongitude());
+        assertEquals(-180, pole.minLongitude());
+        assertEquals(90, pole.maxLatitude());
+    }
+
+    @Test
+    void writesLongitudeFirstWithoutExponents() {
+        BoundingBox box = new BoundingBox(0.00001, -1, 2, 3);
+
+        assertEquals("POLYGON((-1.000000000 0.000010000, 3.000000000 0.000010000, "
+                + "3.000000000 2.000000000, -1.000000000 2.000000000, -1.000000000 0.000010000))", box.toWkt());
+    }
+}
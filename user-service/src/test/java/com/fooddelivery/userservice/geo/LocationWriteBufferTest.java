@@ -0,0 +1,193 @@
+package com.fooddelivery.userservice.geo;
+
+import com.fooddelivery.userservice.cache.ProfileChangeLog;
+import com.fooddelivery.userservice.cache.UserProfileCache;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.entity.UserStatus;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The flush statement on H2, with the H2GIS functions standing in for MySQL.
+ * Not inside a test transaction: every flushed batch commits on its own.
+ */
+@DataJpaTest
+@Import(SpatialSchemaInitializer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LocationWriteBufferTest {
+
+    @Autowired
+    private UserProfileRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ProfileChangeLog profileChangeLog = mock(ProfileChangeLog.class);
+    private final UserProfileCache profileCache =
+            spy(new UserProfileCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            repository.save(UserProfile.builder()
+                    .userId(id)
+                    .fullName("Restaurant " + id)
+                    .phone(String.format("01%09d", id))
+                    .email("restaurant" + id + "@test.com")
+                    .role(Role.RESTAURANT)
+                    .status(UserStatus.ACTIVE)
+                    .latitude(30.0)
+                    .longitude(31.0)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void flushWritesOnlyTheLatestPush() {
+        LocationWriteBuffer buffer = buffer(Duration.ofHours(1));
+        profileCache.get(1L, repository::findById);
+        buffer.put(1L, 30.1, 31.1);
+        buffer.put(1L, 30.2, 31.2);
+
+        assertEquals(1, buffer.size());
+        assertEquals(30.0, latitude(1L));
+
+        assertEquals(1, buffer.flush());
+        assertEquals(30.2, latitude(1L));
+        assertTrue(buffer.pending(1L).isEmpty());
+        verify(profileChangeLog).appendAll(List.of(1L));
+        // cached from the flushed row, not dropped for a replica to fill
+        assertEquals(30.2, profileCache.getIfPresent(1L).orElseThrow().getLatitude());
+    }
+
+    @Test
+    void derivedColumnsMatchTheEntity() {
+        LocationWriteBuffer buffer = buffer(Duration.ofHours(1));
+        buffer.put(1L, 29.987654321, 31.0000001);
+        buffer.flush();
+
+        // the same coordinates written through the entity
+        UserProfile expected = repository.findById(2L).orElseThrow();
+        expected.setLatitude(29.987654321);
+        expected.setLongitude(31.0000001);
+        repository.saveAndFlush(expected);
+
+        String columns = "SELECT ST_AsText(location), zone_cell10, zone_cell12, zone_cell14 FROM user_profiles ";
+        assertEquals(jdbcTemplate.queryForMap(columns + "WHERE user_id = 2").values().stream().toList(),
+                jdbcTemplate.queryForMap(columns + "WHERE user_id = 1").values().stream().toList());
+    }
+
+    @Test
+    void clearedLocationResetsDerivedColumns() {
+        LocationWriteBuffer buffer = buffer(Duration.ofHours(1));
+        buffer.put(2L, null, null);
+        buffer.flush();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT latitude, ST_AsText(location) location, zone_cell14 FROM user_profiles WHERE user_id = 2");
+        assertNull(row.get("latitude"));
+        assertEquals("POINT (0 0)", row.get("location"));
+        assertNull(row.get("zone_cell14"));
+    }
+
+    @Test
+    void flushesInBatches() {
+        LocationWriteBuffer buffer = buffer(Duration.ofHours(1));
+        for (long id = 1; id <= 5; id++) {
+            buffer.put(id, 40.0 + id, 31.0);
+        }
+
+        assertEquals(5, buffer.flush());
+        for (long id = 1; id <= 5; id++) {
+            assertEquals(40.0 + id, latitude(id));
+        }
+        verify(profileCache, times(3)).refreshAll(any(), any());
+        verify(profileChangeLog, times(3)).appendAll(any());
+    }
+
+    @Test
+    void flushReadsBackOnlyCachedProfiles() {
+        LocationWriteBuffer buffer = buffer(Duration.ofHours(1));
+        profileCache.get(1L, repository::findById);
+        buffer.put(1L, 40.0, 31.0);
+        buffer.put(2L, 41.0, 31.0);
+
+        buffer.flush();
+
+        assertEquals(40.0, profileCache.getIfPresent(1L).orElseThrow().getLatitude());
+        assertTrue(profileCache.getIfPresent(2L).isEmpty());
+    }
+
+    @Test
+    void flushUnderOpenInView_cachesTheFlushedRow() {
+        LocationWriteBuffer buffer = buffer(Duration.ofHours(1));
+        // what open-in-view binds for a request
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            profileCache.get(1L, repository::findById);
+            buffer.put(1L, 40.0, 31.0);
+
+            buffer.flush();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+
+        assertEquals(40.0, latitude(1L));
+        assertEquals(40.0, profileCache.getIfPresent(1L).orElseThrow().getLatitude());
+    }
+
+    @Test
+    void staleBufferFlushesOnPush() throws InterruptedException {
+        LocationWriteBuffer buffer = buffer(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        buffer.put(3L, 35.0, 31.0);
+
+        assertEquals(0, buffer.size());
+        assertEquals(35.0, latitude(3L));
+    }
+
+    private LocationWriteBuffer buffer(Duration maxStaleness) {
+        return new LocationWriteBuffer(jdbcTemplate, transactionManager, profileChangeLog, profileCache,
+                entityManagerFactory, new SimpleMeterRegistry(), 2, maxStaleness, true);
+    }
+
+    private double latitude(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT latitude FROM user_profiles WHERE user_id = ?", Double.class, userId);
+    }
+}
@@ -0,0 +1,227 @@
+package com.fooddelivery.userservice.geo;
+
+import com.fooddelivery.userservice.dto.projection.RestaurantLocationView;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserStatus;
+import com.fooddelivery.userservice.repository.UserProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RestaurantSpatialIndexTest {
+
+    private UserProfileRepository repository;
+    private RestaurantSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserProfileRepository.class);
+        index = new RestaurantSpatialIndex(repository, new SimpleMeterRegistry(), 0.01);
+    }
+
+    @Test
+    void nearestMatchesBruteForceInACity() {
+        Random random = new Random(7);
+        List<RestaurantLocationView> restaurants = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            restaurants.add(new RestaurantLocationView(id,
+                    29.85 + random.nextDouble() * 0.4, 31.05 + random.nextDouble() * 0.4));
+        }
+        restaurants.forEach(this::indexActive);
+
+        for (int i = 0; i < 200; i++) {
+            double latitude = 29.8 + random.nextDouble() * 0.5;
+            double longitude = 31.0 + random.nextDouble() * 0.5;
+            int limit = 1 + random.nextInt(50);
+            double radiusKm = 0.5 + random.nextDouble() * 20;
+
+            assertSameMatches(bruteForce(restaurants, latitude, longitude, limit, radiusKm),
+                    index.nearest(latitude, longitude, limit, radiusKm));
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForceAcrossTheGlobe() {
+        index = new RestaurantSpatialIndex(repository, new SimpleMeterRegistry(), 5);
+        Random random = new Random(11);
+        List<RestaurantLocationView> restaurants = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            restaurants.add(new RestaurantLocationView(id,
+                    random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        restaurants.forEach(this::indexActive);
+
+        for (int i = 0; i < 200; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            int limit = 1 + random.nextInt(20);
+
+            assertSameMatches(bruteForce(restaurants, latitude, longitude, limit, 25_000),
+                    index.nearest(latitude, longitude, limit, 25_000));
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForceAroundThePole() {
+        Random random = new Random(13);
+        List<RestaurantLocationView> restaurants = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            restaurants.add(new RestaurantLocationView(id,
+                    89.0 + random.nextDouble(), random.nextDouble() * 360 - 180));
+        }
+        restaurants.forEach(this::indexActive);
+
+        for (int i = 0; i < 200; i++) {
+            double latitude = 89.0 + random.nextDouble();
+            double longitude = random.nextDouble() * 360 - 180;
+            int limit = 1 + random.nextInt(20);
+            double radiusKm = 1 + random.nextDouble() * 49;
+
+            assertSameMatches(bruteForce(restaurants, latitude, longitude, limit, radiusKm),
+                    index.nearest(latitude, longitude, limit, radiusKm));
+        }
+    }
+
+    @Test
+    void nearestNearThePoleWithNothingAroundStaysCheap() {
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+
+        // whole rows of 36,000 cells each, once cell by cell these took seconds
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (int i = 0; i < 1_000; i++) {
+                assertTrue(index.nearest(89.9, 0.0, 20, 50).isEmpty());
+                assertTrue(index.nearest(-89.99, 120.0, 20, 50).isEmpty());
+            }
+        });
+    }
+
+    @Test
+    void nearestWrapsAroundTheAntimeridian() {
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 0.0, 179.999);
+        index.update(2L, Role.RESTAURANT, UserStatus.ACTIVE, 0.0, 179.5);
+
+        List<RestaurantSpatialIndex.Match> matches = index.nearest(0.0, -179.999, 2, 100);
+
+        assertEquals(List.of(1L, 2L), matches.stream().map(RestaurantSpatialIndex.Match::userId).toList());
+        assertEquals(0.222, matches.get(0).distanceKm(), 0.001);
+    }
+
+    @Test
+    void nearestReturnsOnlyRestaurantsWithinTheRadius() {
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+        index.update(2L, Role.RESTAURANT, UserStatus.ACTIVE, 30.1, 31.0);
+
+        List<RestaurantSpatialIndex.Match> matches = index.nearest(30.0, 31.0, 10, 5);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).userId());
+        assertEquals(0.0, matches.get(0).distanceKm(), 1e-9);
+    }
+
+    @Test
+    void updateMovesRestaurantBetweenCells() {
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 30.5, 31.5);
+
+        assertTrue(index.nearest(30.0, 31.0, 10, 1).isEmpty());
+        assertEquals(1L, index.nearest(30.5, 31.5, 10, 1).get(0).userId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void updateRemovesInactiveAndNonRestaurantProfiles() {
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+        index.update(2L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+        index.update(3L, Role.CUSTOMER, UserStatus.ACTIVE, 30.0, 31.0);
+
+        index.update(1L, Role.RESTAURANT, UserStatus.SUSPENDED, 30.0, 31.0);
+
+        assertEquals(List.of(2L), index.nearest(30.0, 31.0, 10, 1).stream()
+                .map(RestaurantSpatialIndex.Match::userId).toList());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void loadReadsActiveRestaurantsPageByPage() {
+        List<RestaurantLocationView> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            firstPage.add(new RestaurantLocationView(id, 30.0, 31.0));
+        }
+        when(repository.findLocationsAfter(eq(Role.RESTAURANT), eq(UserStatus.ACTIVE), eq(0L), any()))
+                .thenReturn(firstPage);
+        when(repository.findLocationsAfter(eq(Role.RESTAURANT), eq(UserStatus.ACTIVE), eq(10_000L), any()))
+                .thenReturn(List.of(new RestaurantLocationView(10_001L, 30.0, 31.0)));
+
+        index.load();
+
+        assertEquals(10_001, index.size());
+        verify(repository, times(2)).findLocationsAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void profilesChangedOnOtherNodesAreReadBack() {
+        index.update(1L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+        index.update(2L, Role.RESTAURANT, UserStatus.ACTIVE, 30.0, 31.0);
+        when(repository.findLocationsByUserIdIn(eq(Role.RESTAURANT), eq(UserStatus.ACTIVE),
+                argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L)))))
+                .thenReturn(List.of(new RestaurantLocationView(2L, 30.2, 31.2)));
+
+        index.profilesChanged(Set.of(1L, 2L));
+
+        assertTrue(index.nearest(30.0, 31.0, 10, 1).isEmpty());
+        assertEquals(2L, index.nearest(30.2, 31.2, 10, 1).get(0).userId());
+    }
+
+    @Test
+    void profilesChangedReadsBackInBoundedBatches() {
+        Set<Long> changed = new HashSet<>();
+        for (long id = 1; id <= 1_200; id++) {
+            changed.add(id);
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+        when(repository.findLocationsByUserIdIn(eq(Role.RESTAURANT), eq(UserStatus.ACTIVE), anyCollection()))
+                .thenAnswer(invocation -> {
+                    batchSizes.add(invocation.<Collection<Long>>getArgument(2).size());
+                    return List.of();
+                });
+
+        index.profilesChanged(changed);
+
+        assertEquals(List.of(500, 500, 200), batchSizes);
+    }
+
+    private void indexActive(RestaurantLocationView view) {
+        index.update(view.userId(), Role.RESTAURANT, UserStatus.ACTIVE, view.latitude(), view.longitude());
+    }
+
+    private static List<Double> bruteForce(List<RestaurantLocationView> restaurants,
+                                           double latitude, double longitude, int limit, double radiusKm) {
+        return restaurants.stream()
+                .map(view -> Haversine.distanceKm(latitude, longitude, view.latitude(), view.longitude()))
+                .filter(distance -> distance <= radiusKm)
+                .sorted(Comparator.naturalOrder())
+                .limit(limit)
+                .toList();
+    }
+
+    // compared by distance, equidistant restaurants may come in either order
+    private static void assertSameMatches(List<Double> expected, List<RestaurantSpatialIndex.Match> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i).distanceKm(), 1e-6);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.fooddelivery.userservice.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneCellsTest {
+
+    @Test
+    void finerCellsNestInsideCoarserOnes() {
+        Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            long block = ZoneCells.cellId(ZoneCells.BLOCK, latitude, longitude);
+
+            assertEquals(ZoneCells.BLOCK, ZoneCells.resolution(block));
+            assertEquals(ZoneCells.cellId(ZoneCells.ZONE, latitude, longitude), ZoneCells.parent(block, ZoneCells.ZONE));
+            assertEquals(ZoneCells.cellId(ZoneCells.CITY, latitude, longitude), ZoneCells.parent(block, ZoneCells.CITY));
+        }
+    }
+
+    @Test
+    void pointsCloserThanACellShareTheCellOrItsRing() {
+        double size = ZoneCells.cellDegrees(ZoneCells.ZONE);
+        long cell = ZoneCells.cellId(ZoneCells.ZONE, 30.05, 31.25);
+
+        List<Long> ring = ZoneCells.withRing(cell, 1);
+
+        // a cell at 30 degrees is 0.87 cells wide in km, so each row spans two columns each way
+        assertEquals(15, ring.size());
+        assertEquals(15, new HashSet<>(ring).size());
+        assertTrue(ring.contains(cell));
+        assertTrue(ring.contains(ZoneCells.cellId(ZoneCells.ZONE, 30.05 + size * 0.99, 31.25 - size * 0.99)));
+        assertFalse(ring.contains(ZoneCells.cellId(ZoneCells.ZONE, 30.05 + size * 2.01, 31.25)));
+    }
+
+    @Test
+    void ringWrapsAtTheAntimeridianAndStopsAtThePoles() {
+        long east = ZoneCells.cellId(ZoneCells.ZONE, 0, 179.999);
+        long pole = ZoneCells.cellId(ZoneCells.ZONE, 90, 0);
+
+        assertTrue(ZoneCells.withRing(east, 1).contains(ZoneCells.cellId(ZoneCells.ZONE, 0, -179.999)));
+        // widening is capped near the poles
+        assertEquals(2 * 17, ZoneCells.withRing(pole, 1).size());
+    }
+
+    @Test
+    void ringCoversItsDistanceEastWestAtHighLatitudes() {
+        Random random = new Random(11);
+        double size = ZoneCells.cellDegrees(ZoneCells.ZONE);
+        double ringKm = 2 * Math.toRadians(size) * 6371.0088;
+
+        for (int i = 0; i < 10_000; i++) {
+            double latitude = 60.0 + random.nextDouble() * size;
+            double longitude = 10.0 + random.nextDouble() * size;
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double distanceKm = random.nextDouble() * ringKm;
+            double targetLatitude = latitude + Math.toDegrees(distanceKm * Math.cos(bearing) / 6371.0088);
+            double targetLongitude = longitude + Math.toDegrees(distanceKm * Math.sin(bearing)
+                    / (6371.0088 * Math.cos(Math.toRadians(latitude))));
+            if (Haversine.distanceKm(latitude, longitude, targetLatitude, targetLongitude) > 0.95 * ringKm) {
+                continue;
+            }
+
+            List<Long> ring = ZoneCells.withRing(ZoneCells.cellId(ZoneCells.ZONE, latitude, longitude), 2);
+            assertTrue(ring.contains(ZoneCells.cellId(ZoneCells.ZONE, targetLatitude, targetLongitude)),
+                    "(" + targetLatitude + ", " + targetLongitude + ") outside the ring of ("
+                            + latitude + ", " + longitude + ")");
+        }
+    }
+
+    @Test
+    void rejectsUnknownResolutions() {
+        assertThrows(IllegalArgumentException.class, () -> ZoneCells.cellId(21, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ZoneCells.parent(ZoneCells.cellId(ZoneCells.CITY, 0, 0), ZoneCells.BLOCK));
+    }
+}
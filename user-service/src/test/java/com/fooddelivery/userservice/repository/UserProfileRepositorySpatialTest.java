@@ -0,0 +1,204 @@
+package com.fooddelivery.userservice.repository;
+
+import com.fooddelivery.userservice.dto.projection.RestaurantDistanceView;
+import com.fooddelivery.userservice.dto.projection.RestaurantLocationView;
+import com.fooddelivery.userservice.entity.Role;
+import com.fooddelivery.userservice.entity.UserProfile;
+import com.fooddelivery.userservice.entity.UserStatus;
+import com.fooddelivery.userservice.geo.BoundingBox;
+import com.fooddelivery.userservice.geo.Haversine;
+import com.fooddelivery.userservice.geo.SpatialSchemaInitializer;
+import com.fooddelivery.userservice.geo.ZoneCellBackfill;
+import com.fooddelivery.userservice.geo.ZoneCells;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restaurant location queries on H2, with the H2GIS functions standing in for MySQL.
+ */
+@DataJpaTest
+@Import({SpatialSchemaInitializer.class, ZoneCellBackfill.class})
+class UserProfileRepositorySpatialTest {
+
+    private static final double LATITUDE = 30.05;
+    private static final double LONGITUDE = 31.25;
+
+    @Autowired
+    private UserProfileRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ZoneCellBackfill zoneCellBackfill;
+
+    private final List<UserProfile> restaurants = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(3);
+        for (long id = 1; id <= 500; id++) {
+            UserProfile profile = profile(id, Role.RESTAURANT, UserStatus.ACTIVE,
+                    29.85 + random.nextDouble() * 0.4, 31.05 + random.nextDouble() * 0.4);
+            restaurants.add(profile);
+            repository.save(profile);
+        }
+
+        repository.save(profile(501L, Role.CUSTOMER, UserStatus.ACTIVE, LATITUDE, LONGITUDE));
+        repository.save(profile(502L, Role.RESTAURANT, UserStatus.SUSPENDED, LATITUDE, LONGITUDE));
+        repository.save(profile(503L, Role.RESTAURANT, UserStatus.ACTIVE, null, null));
+        repository.flush();
+    }
+
+    @Test
+    void locationFollowsCoordinates() {
+        UserProfile profile = repository.findById(1L).orElseThrow();
+        profile.setLatitude(10.5);
+        profile.setLongitude(20.25);
+        repository.saveAndFlush(profile);
+
+        String location = jdbcTemplate.queryForObject(
+                "SELECT ST_AsText(location) FROM user_profiles WHERE user_id = 1", String.class);
+        assertEquals("POINT (20.25 10.5)", location);
+    }
+
+    @Test
+    void pagesThroughRestaurantsWithinTheRadiusNearestFirst() {
+        double radiusKm = 8;
+        List<Long> expected = restaurants.stream()
+                .filter(profile -> distanceKm(profile) <= radiusKm)
+                .sorted(Comparator.comparingDouble(this::distanceKm))
+                .map(UserProfile::getUserId)
+                .toList();
+
+        String box = BoundingBox.around(LATITUDE, LONGITUDE, radiusKm).toWkt();
+        List<Long> actual = new ArrayList<>();
+        double afterDistanceKm = -1;
+        long afterUserId = 0;
+        List<RestaurantDistanceView> page;
+        do {
+            page = repository.findRestaurantsWithin(
+                    LATITUDE, LONGITUDE, radiusKm, box, afterDistanceKm, afterUserId, 7);
+            for (RestaurantDistanceView restaurant : page) {
+                actual.add(restaurant.getUserId());
+                afterDistanceKm = restaurant.getDistanceKm();
+                afterUserId = restaurant.getUserId();
+            }
+        } while (page.size() == 7);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void returnsDistanceAndCoordinates() {
+        UserProfile nearest = restaurants.stream()
+                .min(Comparator.comparingDouble(this::distanceKm))
+                .orElseThrow();
+
+        RestaurantDistanceView restaurant = repository.findRestaurantsWithin(LATITUDE, LONGITUDE, 50,
+                BoundingBox.around(LATITUDE, LONGITUDE, 50).toWkt(), -1, 0, 1).get(0);
+
+        assertEquals(nearest.getUserId(), restaurant.getUserId());
+        assertEquals(nearest.getLatitude(), restaurant.getLatitude());
+        assertEquals(nearest.getLongitude(), restaurant.getLongitude());
+        assertEquals(distanceKm(nearest), restaurant.getDistanceKm(), 1e-9);
+    }
+
+    @Test
+    void skipsCustomersInactiveRestaurantsAndMissingCoordinates() {
+        List<Long> userIds = repository.findRestaurantsWithin(LATITUDE, LONGITUDE, 0.001,
+                        BoundingBox.around(LATITUDE, LONGITUDE, 0.001).toWkt(), -1, 0, 10).stream()
+                .map(RestaurantDistanceView::getUserId)
+                .toList();
+
+        assertTrue(userIds.isEmpty());
+    }
+
+    @Test
+    void restaurantsAreFoundByTheirZoneCells() {
+        List<Long> cells = ZoneCells.withRing(ZoneCells.cellId(ZoneCells.BLOCK, LATITUDE, LONGITUDE), 1);
+        List<Long> expected = restaurants.stream()
+                .filter(profile -> cells.contains(
+                        ZoneCells.cellId(ZoneCells.BLOCK, profile.getLatitude(), profile.getLongitude())))
+                .map(UserProfile::getUserId)
+                .sorted()
+                .toList();
+
+        List<Long> actual = findInZoneCells(cells, 1000).stream()
+                .sorted()
+                .toList();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void zoneCellLookupReturnsOnlyTheNearestRows() {
+        List<Long> cells = ZoneCells.withRing(ZoneCells.cellId(ZoneCells.BLOCK, LATITUDE, LONGITUDE), 1);
+        List<Long> expected = restaurants.stream()
+                .filter(profile -> cells.contains(
+                        ZoneCells.cellId(ZoneCells.BLOCK, profile.getLatitude(), profile.getLongitude())))
+                .sorted(Comparator.comparingDouble(profile ->
+                        Haversine.distanceKm(LATITUDE, LONGITUDE, profile.getLatitude(), profile.getLongitude())))
+                .limit(3)
+                .map(UserProfile::getUserId)
+                .toList();
+
+        assertEquals(3, expected.size());
+        assertEquals(expected, findInZoneCells(cells, 3));
+    }
+
+    private List<Long> findInZoneCells(List<Long> cells, int limit) {
+        return repository.findLocationsInZoneCell14(cells, Role.RESTAURANT, UserStatus.ACTIVE,
+                        LATITUDE, LONGITUDE, Math.cos(Math.toRadians(LATITUDE)), PageRequest.of(0, limit)).stream()
+                .map(RestaurantLocationView::userId)
+                .toList();
+    }
+
+    @Test
+    void backfillAssignsCellsTheEntityWouldAssign() {
+        UserProfile profile = repository.findById(1L).orElseThrow();
+        jdbcTemplate.update("UPDATE user_profiles SET zone_cell10 = NULL, zone_cell12 = NULL, zone_cell14 = NULL");
+
+        zoneCellBackfill.backfill();
+
+        assertEquals(profile.getZoneCell10(), jdbcTemplate.queryForObject(
+                "SELECT zone_cell10 FROM user_profiles WHERE user_id = 1", Long.class));
+        assertEquals(profile.getZoneCell12(), jdbcTemplate.queryForObject(
+                "SELECT zone_cell12 FROM user_profiles WHERE user_id = 1", Long.class));
+        assertEquals(profile.getZoneCell14(), jdbcTemplate.queryForObject(
+                "SELECT zone_cell14 FROM user_profiles WHERE user_id = 1", Long.class));
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT zone_cell12 FROM user_profiles WHERE user_id = 503", Long.class));
+    }
+
+    private double distanceKm(UserProfile profile) {
+        return Haversine.distanceKm(LATITUDE, LONGITUDE, profile.getLatitude(), profile.getLongitude());
+    }
+
+    private static UserProfile profile(Long userId, Role role, UserStatus status, Double latitude, Double longitude) {
+        return UserProfile.builder()
+                .userId(userId)
+                .fullName("Restaurant " + userId)
+                .phone(String.format("01%09d", userId))
+                .email("restaurant" + userId + "@test.com")
+                .role(role)
+                .status(status)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.fooddelivery.userservice.security;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationSyncTest {
+
+    private static final String INTERNAL_TOKEN = "test-internal-token";
+
+    private HttpServer authService;
+    // response body by "since" value
+    private final Map<String, String> pages = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+
+    private RevocationSync sync;
+
+    @BeforeEach
+    void setup() throws IOException {
+        authService = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        authService.createContext("/internal/revocations", exchange -> {
+            requests.add(exchange.getRequestURI().getQuery());
+            String since = exchange.getRequestURI().getQuery().replaceAll(".*since=(\\d+).*", "$1");
+            boolean authorized = INTERNAL_TOKEN.equals(exchange.getRequestHeaders().getFirst("X-Internal-Token"));
+
+            byte[] body = pages.getOrDefault(since, emptyPage(Long.parseLong(since)))
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(authorized ? status : 401, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        authService.start();
+
+        sync = new RevocationSync(
+                RestClient.builder(),
+                new SimpleMeterRegistry(),
+                "http://127.0.0.1:" + authService.getAddress().getPort(),
+                INTERNAL_TOKEN,
+                2
+        );
+    }
+
+    @AfterEach
+    void stop() {
+        authService.stop(0);
+    }
+
+    @Test
+    void poll_followsPagesAndAdvancesCursor() {
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        String third = UUID.randomUUID().toString();
+        long exp = System.currentTimeMillis() + 60_000;
+
+        pages.put("0", page(2, true, entry(first, exp), entry(second, exp)));
+        pages.put("2", page(3, false, entry(third, exp)));
+
+        sync.poll();
+
+        assertTrue(sync.isRevoked(first));
+        assertTrue(sync.isRevoked(second));
+        assertTrue(sync.isRevoked(third));
+        assertFalse(sync.isRevoked(UUID.randomUUID().toString()));
+        assertEquals(3, sync.cursor());
+
+        sync.poll();
+
+        assertEquals("since=3&limit=2", requests.get(requests.size() - 1));
+    }
+
+    @Test
+    void poll_ignoresExpiredEntries() {
+        String expired = UUID.randomUUID().toString();
+        pages.put("0", page(1, false, entry(expired, System.currentTimeMillis() - 1_000)));
+
+        sync.poll();
+
+        assertFalse(sync.isRevoked(expired));
+        assertEquals(1, sync.cursor());
+    }
+
+    @Test
+    void poll_authServiceDown_keepsStateAndCursor() {
+        String revoked = UUID.randomUUID().toString();
+        pages.put("0", page(1, false, entry(revoked, System.currentTimeMillis() + 60_000)));
+        sync.poll();
+
+        status = 503;
+        sync.poll();
+
+        assertTrue(sync.isRevoked(revoked));
+        assertEquals(1, sync.cursor());
+    }
+
+    @Test
+    void isRevoked_nonUuidTokenId() {
+        pages.put("0", page(1, false, entry("legacy-id", System.currentTimeMillis() + 60_000)));
+
+        sync.poll();
+
+        assertTrue(sync.isRevoked("legacy-id"));
+        assertFalse(sync.isRevoked(null));
+    }
+
+    private static String entry(String jti, long expiresAt) {
+        return "{\"jti\":\"" + jti + "\",\"expiresAt\":" + expiresAt + "}";
+    }
+
+    private static String page(long cursor, boolean hasMore, String... entries) {
+        return "{\"cursor\":" + cursor + ",\"hasMore\":" + hasMore
+                + ",\"entries\":[" + String.join(",", entries) + "]}";
+    }
+
+    private static String emptyPage(long cursor) {
+        return page(cursor, false);
+    }
+}
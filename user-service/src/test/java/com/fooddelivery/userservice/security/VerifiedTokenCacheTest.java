@@ -0,0 +1,89 @@
+package com.fooddelivery.userservice.security;
+
+import com.fooddelivery.userservice.dto.request.AuthenticatedUser;
+import com.fooddelivery.userservice.exception.JwtAuthenticationException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "mySuperSecretKeyForJwtFoodDelivery12345";
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setup() {
+        JwtUtil realJwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(realJwtUtil, "secretKey", SECRET);
+        realJwtUtil.init();
+
+        jwtUtil = spy(realJwtUtil);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100, 3_600_000);
+    }
+
+    @Test
+    void getPrincipal_sameToken_verifiedOnce() {
+        String token = token(System.currentTimeMillis() + 60_000);
+
+        AuthenticatedUser first = cache.getPrincipal(token);
+        AuthenticatedUser second = cache.getPrincipal(token);
+
+        assertEquals(1L, first.getUserId());
+        assertEquals("test@mail.com", first.getEmail());
+        assertEquals("RESTAURANT", first.getRole());
+        assertSame(first, second);
+        verify(jwtUtil, times(1)).parseVerifiedClaims(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified.tokens")
+                .tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getPrincipal_expiredToken_throwException() {
+        String token = token(System.currentTimeMillis() - 1_000);
+
+        assertThrows(
+                JwtAuthenticationException.class,
+                () -> cache.getPrincipal(token)
+        );
+    }
+
+    @Test
+    void getPrincipal_tamperedToken_throwException() {
+        String token = token(System.currentTimeMillis() + 60_000);
+
+        assertThrows(
+                JwtAuthenticationException.class,
+                () -> cache.getPrincipal(token + "x")
+        );
+    }
+
+    private String token(long expiresAt) {
+        return Jwts.builder()
+                .setSubject("test@mail.com")
+                .addClaims(Map.of(
+                        "userId", 1L,
+                        "email", "test@mail.com",
+                        "role", "RESTAURANT"
+                ))
+                .setIssuedAt(new Date(expiresAt - 3_600_000))
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}